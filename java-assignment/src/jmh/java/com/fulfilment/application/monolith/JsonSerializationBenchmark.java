@@ -0,0 +1,68 @@
+package com.fulfilment.application.monolith;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fulfilment.application.monolith.products.Product;
+import com.fulfilment.application.monolith.stores.Store;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// the response bodies of GET /store and GET /product
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+  @Param({"10", "1000"})
+  int size;
+
+  private ObjectWriter writer;
+  private List<Store> stores;
+  private List<Product> products;
+
+  @Setup
+  public void setUp() {
+    writer = new ObjectMapper().writer();
+    stores = new ArrayList<>(size);
+    products = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Store store = new Store("STORE-" + i);
+      store.id = (long) i;
+      store.quantityProductsInStock = i;
+      stores.add(store);
+
+      Product product = new Product("PRODUCT-" + i);
+      product.id = (long) i;
+      product.description = "Description of product " + i;
+      product.price = BigDecimal.valueOf(i * 100 + 99, 2);
+      product.stock = i;
+      products.add(product);
+    }
+  }
+
+  @Benchmark
+  public byte[] serializeStores() throws Exception {
+    return writer.writeValueAsBytes(stores);
+  }
+
+  @Benchmark
+  public byte[] serializeProducts() throws Exception {
+    return writer.writeValueAsBytes(products);
+  }
+}
@@ -0,0 +1,95 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// lookups should stay flat while the number of stores grows, and a replacement should only cost
+// the routes of the warehouse replaced
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FulfilmentRoutingTableBenchmark {
+
+  private static final int LOOKUPS = 1024;
+
+  private static final int PRODUCTS = 50;
+
+  @Param({"10", "1000", "10000"})
+  int stores;
+
+  private FulfilmentRoutingTable routingTable;
+  private long[] productIds;
+  private long[] storeIds;
+  private WarehouseChange[] replacements;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    // every store is fulfilled by 3 warehouses of its own, each product by 2 of them
+    List<Warehouse> warehouses = new ArrayList<>();
+    List<FulfilmentUnit> units = new ArrayList<>();
+    for (long store = 0; store < stores; store++) {
+      for (int i = 0; i < 3; i++) {
+        warehouses.add(warehouse(String.format("MWH.%06d.%d", store, i), 100, 10 * i));
+      }
+      for (long product = 0; product < PRODUCTS; product++) {
+        int first = (int) (product % 3);
+        units.add(new FulfilmentUnit(product, store, String.format("MWH.%06d.%d", store, first)));
+        int second = (first + 1) % 3;
+        units.add(new FulfilmentUnit(product, store, String.format("MWH.%06d.%d", store, second)));
+      }
+    }
+    routingTable = new FulfilmentRoutingTable();
+    routingTable.rebuild(units, warehouses);
+
+    Random random = new Random(42);
+    productIds = new long[LOOKUPS];
+    storeIds = new long[LOOKUPS];
+    replacements = new WarehouseChange[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) {
+      productIds[i] = random.nextInt(PRODUCTS);
+      storeIds[i] = random.nextInt(stores);
+      Warehouse replacement =
+          warehouse(String.format("MWH.%06d.%d", storeIds[i], i % 3), 100, random.nextInt(100));
+      replacements[i] = new WarehouseChange(WarehouseChange.Type.REPLACED, replacement);
+    }
+  }
+
+  @Benchmark
+  public List<FulfilmentRoute> lookup() {
+    int i = next++ & (LOOKUPS - 1);
+    return routingTable.routes(productIds[i], storeIds[i]);
+  }
+
+  @Benchmark
+  public void replaceWarehouse() {
+    routingTable.onWarehouseChange(replacements[next++ & (LOOKUPS - 1)]);
+  }
+
+  private static Warehouse warehouse(String businessUnitCode, int capacity, int stock) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = businessUnitCode;
+    warehouse.location = "AMSTERDAM-001";
+    warehouse.capacity = capacity;
+    warehouse.stock = stock;
+    return warehouse;
+  }
+}
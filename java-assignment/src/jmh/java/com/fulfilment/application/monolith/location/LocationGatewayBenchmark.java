@@ -0,0 +1,63 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// resolution time should stay flat while the catalog grows
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocationGatewayBenchmark {
+
+  private static final int LOOKUPS = 1024;
+
+  @Param({"8", "1000", "100000"})
+  int catalogSize;
+
+  private LocationGateway locationGateway;
+  private String[] identifiers;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    List<Location> locations = new ArrayList<>(catalogSize);
+    for (int i = 0; i < catalogSize; i++) {
+      locations.add(new Location(String.format("LOCATION-%06d", i), 1, 100));
+    }
+    locationGateway = new LocationGateway(locations);
+
+    Random random = new Random(42);
+    identifiers = new String[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) {
+      // fresh strings so the benchmark pays for hashing like a request would
+      identifiers[i] = new String(locations.get(random.nextInt(catalogSize)).identification);
+    }
+  }
+
+  @Benchmark
+  public Location resolveExisting() {
+    return locationGateway.resolveByIdentifier(identifiers[next++ & (LOOKUPS - 1)]);
+  }
+
+  @Benchmark
+  public Location resolveUnknown() {
+    return locationGateway.resolveByIdentifier("UNKNOWN-001");
+  }
+}
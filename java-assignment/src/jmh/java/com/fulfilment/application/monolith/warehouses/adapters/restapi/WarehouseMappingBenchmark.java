@@ -0,0 +1,43 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// entity to domain to API bean, paid for every warehouse of a listing
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WarehouseMappingBenchmark {
+
+  private DbWarehouse dbWarehouse;
+
+  @Setup
+  public void setUp() {
+    dbWarehouse = new DbWarehouse();
+    dbWarehouse.id = 1L;
+    dbWarehouse.businessUnitCode = "MWH.001";
+    dbWarehouse.location = "ZWOLLE-001";
+    dbWarehouse.capacity = 100;
+    dbWarehouse.stock = 10;
+    dbWarehouse.createdAt = LocalDateTime.of(2024, 7, 1, 0, 0);
+  }
+
+  @Benchmark
+  public com.warehouse.api.beans.Warehouse toWarehouseResponse() {
+    return WarehouseResourceImpl.toWarehouseResponse(dbWarehouse.toWarehouse());
+  }
+}
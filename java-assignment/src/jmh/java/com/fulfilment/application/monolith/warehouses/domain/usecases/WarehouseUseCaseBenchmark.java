@@ -0,0 +1,105 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.adapters.memory.InMemoryWarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseChangeListener;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseOperationMetrics;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// the cost of the admission rules themselves, on the in-memory store
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WarehouseUseCaseBenchmark {
+
+  private static final int LOCATIONS = 100;
+
+  private static final int WAREHOUSES = 1024;
+
+  private InMemoryWarehouseStore warehouseStore;
+  private CreateWarehouseUseCase createWarehouseUseCase;
+  private ReplaceWarehouseUseCase replaceWarehouseUseCase;
+  private Warehouse[] newWarehouses;
+  private Warehouse[] replacements;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    List<Location> locations = new ArrayList<>(LOCATIONS);
+    Map<String, Location> locationsByIdentifier = new HashMap<>();
+    for (int i = 0; i < LOCATIONS; i++) {
+      Location location = new Location(String.format("LOCATION-%03d", i), 100, 100_000);
+      locations.add(location);
+      locationsByIdentifier.put(location.identification, location);
+    }
+    // LocationGatewayBenchmark covers the resolution itself
+    LocationResolver locationResolver = locationsByIdentifier::get;
+
+    warehouseStore = new InMemoryWarehouseStore();
+    newWarehouses = new Warehouse[WAREHOUSES];
+    replacements = new Warehouse[WAREHOUSES];
+    for (int i = 0; i < WAREHOUSES; i++) {
+      String location = locations.get(i % LOCATIONS).identification;
+      String nextLocation = locations.get((i + 1) % LOCATIONS).identification;
+      warehouseStore.create(warehouse(String.format("MWH.%04d", i), location, 100, 10));
+      newWarehouses[i] = warehouse(String.format("NEW.%04d", i), location, 100, 10);
+      // moves to the next location on the first call, stays there afterwards
+      replacements[i] = warehouse(String.format("MWH.%04d", i), nextLocation, 80, 10);
+    }
+
+    createWarehouseUseCase =
+        new CreateWarehouseUseCase(
+            warehouseStore,
+            locationResolver,
+            WarehouseChangeListener.NONE,
+            WarehouseOperationMetrics.NONE);
+    replaceWarehouseUseCase =
+        new ReplaceWarehouseUseCase(
+            warehouseStore,
+            locationResolver,
+            WarehouseChangeListener.NONE,
+            WarehouseOperationMetrics.NONE);
+  }
+
+  @Benchmark
+  public void create() {
+    Warehouse warehouse = newWarehouses[next++ & (WAREHOUSES - 1)];
+    createWarehouseUseCase.create(warehouse);
+    // undone right away so that the store keeps its size across iterations
+    warehouseStore.remove(warehouse);
+  }
+
+  @Benchmark
+  public void replace() {
+    replaceWarehouseUseCase.replace(replacements[next++ & (WAREHOUSES - 1)]);
+  }
+
+  private static Warehouse warehouse(
+      String businessUnitCode, String location, int capacity, int stock) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = businessUnitCode;
+    warehouse.location = location;
+    warehouse.capacity = capacity;
+    warehouse.stock = stock;
+    return warehouse;
+  }
+}
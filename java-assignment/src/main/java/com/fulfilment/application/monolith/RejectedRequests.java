@@ -0,0 +1,41 @@
+package com.fulfilment.application.monolith;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jboss.logging.Logger;
+
+// The requests answered with a 4xx status by the error mappers of the resources. They are counted
+// by status, and one out of LOG_SAMPLE is logged at debug level, the sample being taken over the
+// rejections of every resource.
+@ApplicationScoped
+public class RejectedRequests {
+
+  private static final Logger LOGGER = Logger.getLogger(RejectedRequests.class.getName());
+
+  static final int LOG_SAMPLE = 100;
+
+  @Inject MeterRegistry meterRegistry;
+
+  private final Map<Integer, Counter> counters = new ConcurrentHashMap<>();
+
+  private final AtomicLong rejected = new AtomicLong();
+
+  public void record(int code, Exception exception) {
+    counters.computeIfAbsent(code, this::counter).increment();
+    if (rejected.getAndIncrement() % LOG_SAMPLE == 0) {
+      LOGGER.debugf("Rejected request with %d: %s", code, exception.getMessage());
+    }
+  }
+
+  private Counter counter(int code) {
+    return Counter.builder("http.rejections")
+        .description("Requests rejected with a 4xx status, by status")
+        .tag("status", String.valueOf(code))
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,34 @@
+package com.fulfilment.application.monolith;
+
+import io.quarkus.runtime.BlockingOperationControl;
+import io.quarkus.virtual.threads.VirtualThreads;
+import jakarta.inject.Inject;
+import java.util.concurrent.ExecutorService;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.core.ResteasyReactiveRequestContext;
+import org.jboss.resteasy.reactive.server.spi.ResteasyReactiveContainerRequestContext;
+
+// Moves the blocking endpoints from the worker pool to virtual threads when
+// quarkus.virtual-threads.enabled is set. @RunOnVirtualThread would fail the build whenever it
+// runs on, or targets, JDK 17, so the request is handed over here instead: the worker thread it
+// was dispatched to only runs this filter, the rest of the request, the endpoint included, runs on
+// a virtual thread. Endpoints served from the event loop are left where they are.
+public class VirtualThreadDispatch {
+
+  @ConfigProperty(name = "quarkus.virtual-threads.enabled", defaultValue = "false")
+  boolean enabled;
+
+  @Inject @VirtualThreads ExecutorService virtualThreads;
+
+  @ServerRequestFilter
+  public void runOnVirtualThread(ResteasyReactiveContainerRequestContext context) {
+    if (!enabled || !BlockingOperationControl.isBlockingAllowed()) {
+      return;
+    }
+    ResteasyReactiveRequestContext request =
+        (ResteasyReactiveRequestContext) context.getServerRequestContext();
+    request.suspend();
+    request.resume(virtualThreads);
+  }
+}
@@ -0,0 +1,29 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+public class FulfilmentAssignmentResult {
+  public FulfilmentUnit unit;
+
+  // status code the assignment would have been answered with if made on its own
+  public int code;
+
+  // reason of the rejection, null when the unit was assigned
+  public String error;
+
+  public FulfilmentAssignmentResult(FulfilmentUnit unit, int code, String error) {
+    this.unit = unit;
+    this.code = code;
+    this.error = error;
+  }
+
+  public static FulfilmentAssignmentResult assigned(FulfilmentUnit unit) {
+    return new FulfilmentAssignmentResult(unit, 201, null);
+  }
+
+  public static FulfilmentAssignmentResult rejected(FulfilmentUnit unit, int code, String error) {
+    return new FulfilmentAssignmentResult(unit, code, error);
+  }
+
+  public boolean isAssigned() {
+    return error == null;
+  }
+}
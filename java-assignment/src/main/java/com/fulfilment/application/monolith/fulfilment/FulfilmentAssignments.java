@@ -0,0 +1,140 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import com.fulfilment.application.monolith.products.ProductRepository;
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Assigns warehouses to the products of stores within the limits of FulfilmentConstraintIndex.
+// Every method must be called in a transaction.
+@ApplicationScoped
+public class FulfilmentAssignments {
+
+  @Inject FulfilmentUnitRepository fulfilmentUnitRepository;
+
+  @Inject FulfilmentConstraintIndex constraintIndex;
+
+  @Inject ProductRepository productRepository;
+
+  @Inject WarehouseStore warehouseStore;
+
+  // observed by FulfilmentRoutingTable once committed
+  @Inject Event<FulfilmentUnitChange> unitChanges;
+
+  public FulfilmentUnit assign(FulfilmentUnit unit) {
+    Warehouse warehouse = reserve(unit);
+    fulfilmentUnitRepository.persist(unit);
+    unitChanges.fire(new FulfilmentUnitChange(FulfilmentUnitChange.Type.ASSIGNED, unit, warehouse));
+    return unit;
+  }
+
+  // Assigns every unit that satisfies the limits, taking the units assigned before it in the list
+  // into account, and reports the others as rejected. The units are inserted in a single batch.
+  public List<FulfilmentAssignmentResult> assignAll(List<FulfilmentUnit> units) {
+    List<FulfilmentAssignmentResult> results = new ArrayList<>(units.size());
+    List<FulfilmentUnitChange> changes = new ArrayList<>(units.size());
+    for (FulfilmentUnit unit : units) {
+      try {
+        Warehouse warehouse = reserve(unit);
+        changes.add(new FulfilmentUnitChange(FulfilmentUnitChange.Type.ASSIGNED, unit, warehouse));
+        results.add(FulfilmentAssignmentResult.assigned(unit));
+      } catch (WebApplicationException e) {
+        results.add(
+            FulfilmentAssignmentResult.rejected(
+                unit, e.getResponse().getStatus(), e.getMessage()));
+      }
+    }
+    fulfilmentUnitRepository.persist(changes.stream().map(FulfilmentUnitChange::unit));
+    changes.forEach(unitChanges::fire);
+    return results;
+  }
+
+  public void unassign(FulfilmentUnit unit) {
+    fulfilmentUnitRepository.delete(unit);
+    constraintIndex.releaseOnCommit(unit);
+    unitChanges.fire(new FulfilmentUnitChange(FulfilmentUnitChange.Type.REMOVED, unit, null));
+  }
+
+  // the units of a product or a store are removed with it
+  public void unassignProduct(Long productId) {
+    fulfilmentUnitRepository.findMatching(productId, null, null).forEach(this::unassign);
+  }
+
+  public void unassignStore(Long storeId) {
+    fulfilmentUnitRepository.findMatching(null, storeId, null).forEach(this::unassign);
+  }
+
+  // Checks the references of the unit and reserves it in the constraint index, returns the
+  // warehouse it is assigned to
+  private Warehouse reserve(FulfilmentUnit unit) {
+    if (unit.id != null) {
+      throw new WebApplicationException("Id was invalidly set on request.", 422);
+    }
+    // product and store are served from the second-level cache, the warehouse from its near-cache
+    if (unit.productId == null || productRepository.findById(unit.productId) == null) {
+      throw rejected(FulfilmentRejection.PRODUCT_NOT_FOUND, unit);
+    }
+    if (unit.storeId == null || Store.findById(unit.storeId) == null) {
+      throw rejected(FulfilmentRejection.STORE_NOT_FOUND, unit);
+    }
+    Warehouse warehouse = warehouseStore.findByBusinessUnitCode(unit.warehouseBusinessUnitCode);
+    if (warehouse == null || warehouse.archivedAt != null) {
+      throw rejected(FulfilmentRejection.WAREHOUSE_NOT_FOUND, unit);
+    }
+    FulfilmentRejection rejection = constraintIndex.reserve(unit);
+    if (rejection != null) {
+      throw rejected(rejection, unit);
+    }
+    return warehouse;
+  }
+
+  private static WebApplicationException rejected(
+      FulfilmentRejection rejection, FulfilmentUnit unit) {
+    return new WebApplicationException(message(rejection, unit), 422);
+  }
+
+  static String message(FulfilmentRejection rejection, FulfilmentUnit unit) {
+    return switch (rejection) {
+      case PRODUCT_NOT_FOUND -> "Product with id of " + unit.productId + " does not exist.";
+      case STORE_NOT_FOUND -> "Store with id of " + unit.storeId + " does not exist.";
+      case WAREHOUSE_NOT_FOUND ->
+          "Active warehouse with business unit code '"
+              + unit.warehouseBusinessUnitCode
+              + "' does not exist.";
+      case ALREADY_ASSIGNED ->
+          "Warehouse '"
+              + unit.warehouseBusinessUnitCode
+              + "' already fulfils product "
+              + unit.productId
+              + " for store "
+              + unit.storeId
+              + ".";
+      case MAX_WAREHOUSES_PER_PRODUCT_AND_STORE ->
+          "Product "
+              + unit.productId
+              + " is already fulfilled by "
+              + FulfilmentConstraintIndex.MAX_WAREHOUSES_PER_PRODUCT_AND_STORE
+              + " warehouses for store "
+              + unit.storeId
+              + ".";
+      case MAX_WAREHOUSES_PER_STORE ->
+          "Store "
+              + unit.storeId
+              + " is already fulfilled by "
+              + FulfilmentConstraintIndex.MAX_WAREHOUSES_PER_STORE
+              + " warehouses.";
+      case MAX_PRODUCTS_PER_WAREHOUSE ->
+          "Warehouse '"
+              + unit.warehouseBusinessUnitCode
+              + "' already stores "
+              + FulfilmentConstraintIndex.MAX_PRODUCTS_PER_WAREHOUSE
+              + " types of products.";
+    };
+  }
+}
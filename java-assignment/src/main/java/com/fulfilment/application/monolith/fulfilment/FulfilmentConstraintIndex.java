@@ -0,0 +1,219 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Counters of the fulfilment units per product and store, per store and per warehouse, so that
+// the three limits are checked with map lookups instead of three COUNT queries per assignment.
+//
+// The index is loaded from the database on first use and is then the only gate to new units: a
+// unit is reserved here before it is inserted, and released again if its transaction rolls back.
+// Removed units are released once their removal is committed. All writers must go through the
+// same instance, the index is not shared between application instances.
+@ApplicationScoped
+public class FulfilmentConstraintIndex {
+
+  public static final int MAX_WAREHOUSES_PER_PRODUCT_AND_STORE = 2;
+
+  public static final int MAX_WAREHOUSES_PER_STORE = 3;
+
+  public static final int MAX_PRODUCTS_PER_WAREHOUSE = 5;
+
+  private static final String PENDING = FulfilmentConstraintIndex.class.getName() + ".pending";
+
+  // the three checks and updates of an assignment must see the same state, one lock guards all
+  // the counters; it is held for a few map operations only, except for the initial load
+  private final ReentrantLock lock = new ReentrantLock();
+
+  // warehouses fulfilling each product for each store
+  private final Map<ProductStore, Set<String>> warehousesByProductAndStore = new HashMap<>();
+
+  // per store, the number of units of each warehouse fulfilling it
+  private final Map<Long, Map<String, Integer>> warehousesByStore = new HashMap<>();
+
+  // per warehouse, the number of units of each product it holds
+  private final Map<String, Map<Long, Integer>> productsByWarehouse = new HashMap<>();
+
+  private boolean loaded;
+
+  @Inject FulfilmentUnitRepository fulfilmentUnitRepository;
+
+  @Inject TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+  // Reserves the unit when it satisfies the three limits, and returns the violated one otherwise.
+  // Must be called in the transaction that inserts the unit.
+  public FulfilmentRejection reserve(FulfilmentUnit unit) {
+    Pending pending = pending();
+    lock.lock();
+    try {
+      load();
+      FulfilmentRejection rejection = check(unit);
+      if (rejection == null) {
+        add(unit);
+        pending.reserved.add(unit);
+      }
+      return rejection;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Releases the unit once the transaction that deletes it has been committed
+  public void releaseOnCommit(FulfilmentUnit unit) {
+    pending().removed.add(unit);
+  }
+
+  public int warehouseCount(Long productId, Long storeId) {
+    lock.lock();
+    try {
+      load();
+      Set<String> warehouses =
+          warehousesByProductAndStore.get(new ProductStore(productId, storeId));
+      return warehouses != null ? warehouses.size() : 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int warehouseCount(Long storeId) {
+    lock.lock();
+    try {
+      load();
+      Map<String, Integer> warehouses = warehousesByStore.get(storeId);
+      return warehouses != null ? warehouses.size() : 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int productCount(String warehouseBusinessUnitCode) {
+    lock.lock();
+    try {
+      load();
+      Map<Long, Integer> products = productsByWarehouse.get(warehouseBusinessUnitCode);
+      return products != null ? products.size() : 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private FulfilmentRejection check(FulfilmentUnit unit) {
+    Set<String> warehouses =
+        warehousesByProductAndStore.get(new ProductStore(unit.productId, unit.storeId));
+    if (warehouses != null) {
+      if (warehouses.contains(unit.warehouseBusinessUnitCode)) {
+        return FulfilmentRejection.ALREADY_ASSIGNED;
+      }
+      if (warehouses.size() >= MAX_WAREHOUSES_PER_PRODUCT_AND_STORE) {
+        return FulfilmentRejection.MAX_WAREHOUSES_PER_PRODUCT_AND_STORE;
+      }
+    }
+    // a warehouse already fulfilling the store, or already holding the product, does not count
+    // twice
+    Map<String, Integer> storeWarehouses = warehousesByStore.get(unit.storeId);
+    if (storeWarehouses != null
+        && !storeWarehouses.containsKey(unit.warehouseBusinessUnitCode)
+        && storeWarehouses.size() >= MAX_WAREHOUSES_PER_STORE) {
+      return FulfilmentRejection.MAX_WAREHOUSES_PER_STORE;
+    }
+    Map<Long, Integer> warehouseProducts = productsByWarehouse.get(unit.warehouseBusinessUnitCode);
+    if (warehouseProducts != null
+        && !warehouseProducts.containsKey(unit.productId)
+        && warehouseProducts.size() >= MAX_PRODUCTS_PER_WAREHOUSE) {
+      return FulfilmentRejection.MAX_PRODUCTS_PER_WAREHOUSE;
+    }
+    return null;
+  }
+
+  private void add(FulfilmentUnit unit) {
+    warehousesByProductAndStore
+        .computeIfAbsent(new ProductStore(unit.productId, unit.storeId), key -> new HashSet<>())
+        .add(unit.warehouseBusinessUnitCode);
+    warehousesByStore
+        .computeIfAbsent(unit.storeId, key -> new HashMap<>())
+        .merge(unit.warehouseBusinessUnitCode, 1, Integer::sum);
+    productsByWarehouse
+        .computeIfAbsent(unit.warehouseBusinessUnitCode, key -> new HashMap<>())
+        .merge(unit.productId, 1, Integer::sum);
+  }
+
+  private void remove(FulfilmentUnit unit) {
+    ProductStore productStore = new ProductStore(unit.productId, unit.storeId);
+    Set<String> warehouses = warehousesByProductAndStore.get(productStore);
+    if (warehouses != null && warehouses.remove(unit.warehouseBusinessUnitCode)) {
+      if (warehouses.isEmpty()) {
+        warehousesByProductAndStore.remove(productStore);
+      }
+      decrement(warehousesByStore, unit.storeId, unit.warehouseBusinessUnitCode);
+      decrement(productsByWarehouse, unit.warehouseBusinessUnitCode, unit.productId);
+    }
+  }
+
+  private static <K, V> void decrement(Map<K, Map<V, Integer>> counters, K key, V value) {
+    Map<V, Integer> counts = counters.get(key);
+    if (counts == null) {
+      return;
+    }
+    counts.computeIfPresent(value, (ignored, count) -> count > 1 ? count - 1 : null);
+    if (counts.isEmpty()) {
+      counters.remove(key);
+    }
+  }
+
+  private void release(List<FulfilmentUnit> units) {
+    if (units.isEmpty()) {
+      return;
+    }
+    lock.lock();
+    try {
+      units.forEach(this::remove);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // the committed units, read once; every later change goes through reserve and releaseOnCommit
+  private void load() {
+    if (loaded) {
+      return;
+    }
+    fulfilmentUnitRepository.listAll().forEach(this::add);
+    loaded = true;
+  }
+
+  // the units reserved and removed by the current transaction, settled when it ends
+  private Pending pending() {
+    Pending pending = (Pending) transactionSynchronizationRegistry.getResource(PENDING);
+    if (pending == null) {
+      Pending created = new Pending();
+      transactionSynchronizationRegistry.putResource(PENDING, created);
+      transactionSynchronizationRegistry.registerInterposedSynchronization(
+          new Synchronization() {
+            @Override
+            public void beforeCompletion() {}
+
+            @Override
+            public void afterCompletion(int status) {
+              release(status == Status.STATUS_COMMITTED ? created.removed : created.reserved);
+            }
+          });
+      pending = created;
+    }
+    return pending;
+  }
+
+  private static class Pending {
+    final List<FulfilmentUnit> reserved = new ArrayList<>();
+    final List<FulfilmentUnit> removed = new ArrayList<>();
+  }
+}
@@ -0,0 +1,12 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+// Constraints an assignment of a warehouse to a product and a store can be rejected by
+public enum FulfilmentRejection {
+  PRODUCT_NOT_FOUND,
+  STORE_NOT_FOUND,
+  WAREHOUSE_NOT_FOUND,
+  ALREADY_ASSIGNED,
+  MAX_WAREHOUSES_PER_PRODUCT_AND_STORE,
+  MAX_WAREHOUSES_PER_STORE,
+  MAX_PRODUCTS_PER_WAREHOUSE
+}
@@ -0,0 +1,74 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import java.util.List;
+
+@Path("fulfilment")
+@ApplicationScoped
+@Produces("application/json")
+@Consumes("application/json")
+public class FulfilmentResource {
+
+  @Inject FulfilmentUnitRepository fulfilmentUnitRepository;
+
+  @Inject FulfilmentAssignments fulfilmentAssignments;
+
+  @Inject FulfilmentRoutingTable routingTable;
+
+  @GET
+  public List<FulfilmentUnit> get(
+      @QueryParam("productId") Long productId,
+      @QueryParam("storeId") Long storeId,
+      @QueryParam("warehouse") String warehouseBusinessUnitCode) {
+    return fulfilmentUnitRepository.findMatching(productId, storeId, warehouseBusinessUnitCode);
+  }
+
+  // the warehouses to fulfil an order line from, most free capacity first
+  @GET
+  @Path("routes")
+  public List<FulfilmentRoute> routes(
+      @QueryParam("productId") Long productId, @QueryParam("storeId") Long storeId) {
+    if (productId == null || storeId == null) {
+      throw new WebApplicationException("productId and storeId must be set.", 400);
+    }
+    return routingTable.routes(productId, storeId);
+  }
+
+  @POST
+  @Transactional
+  public Response create(@NotNull FulfilmentUnit unit) {
+    return Response.ok(fulfilmentAssignments.assign(unit)).status(201).build();
+  }
+
+  @POST
+  @Path("batch")
+  @Transactional
+  public List<FulfilmentAssignmentResult> createAll(@NotNull List<FulfilmentUnit> units) {
+    return fulfilmentAssignments.assignAll(units);
+  }
+
+  @DELETE
+  @Path("{id}")
+  @Transactional
+  public Response delete(Long id) {
+    FulfilmentUnit unit = fulfilmentUnitRepository.findById(id);
+    if (unit == null) {
+      throw new WebApplicationException(
+          "Fulfilment unit with id of " + id + " does not exist.", 404);
+    }
+    fulfilmentAssignments.unassign(unit);
+    return Response.status(204).build();
+  }
+}
@@ -0,0 +1,22 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.util.Comparator;
+
+// An active warehouse a product can be fulfilled from for a store
+public record FulfilmentRoute(
+    String warehouseBusinessUnitCode, String location, int capacity, int stock, int freeCapacity) {
+
+  // most free capacity first
+  static final Comparator<FulfilmentRoute> ORDER =
+      Comparator.comparingInt(FulfilmentRoute::freeCapacity)
+          .reversed()
+          .thenComparing(FulfilmentRoute::warehouseBusinessUnitCode);
+
+  static FulfilmentRoute of(Warehouse warehouse) {
+    int capacity = warehouse.capacity != null ? warehouse.capacity : 0;
+    int stock = warehouse.stock != null ? warehouse.stock : 0;
+    return new FulfilmentRoute(
+        warehouse.businessUnitCode, warehouse.location, capacity, stock, capacity - stock);
+  }
+}
@@ -0,0 +1,173 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// The active warehouses that can serve a product for a store, most free capacity first. The
+// routes of a product and store are computed again whenever one of its units, or one of its
+// warehouses, changes, so that a lookup is a single map read of a prepared list.
+//
+// Loaded on first use from the units and the active warehouses, and then kept up to date by the
+// committed FulfilmentUnitChange and WarehouseChange events.
+@ApplicationScoped
+public class FulfilmentRoutingTable {
+
+  @Inject FulfilmentUnitRepository fulfilmentUnitRepository;
+
+  @Inject WarehouseStore warehouseStore;
+
+  // read without the lock: the lists are immutable and replaced as a whole
+  private final Map<ProductStore, List<FulfilmentRoute>> routes = new ConcurrentHashMap<>();
+
+  // the state the routes are computed from, guarded by the lock
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Map<ProductStore, Set<String>> warehousesByProductAndStore = new HashMap<>();
+
+  private final Map<String, Set<ProductStore>> productStoresByWarehouse = new HashMap<>();
+
+  private final Map<String, FulfilmentRoute> activeWarehouses = new HashMap<>();
+
+  private volatile boolean loaded;
+
+  public List<FulfilmentRoute> routes(long productId, long storeId) {
+    if (!loaded) {
+      load();
+    }
+    return routes.getOrDefault(new ProductStore(productId, storeId), List.of());
+  }
+
+  void onUnitChange(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) FulfilmentUnitChange change) {
+    FulfilmentUnit unit = change.unit();
+    ProductStore productStore = new ProductStore(unit.productId, unit.storeId);
+    String warehouse = unit.warehouseBusinessUnitCode;
+    lock.lock();
+    try {
+      // changes committed before the load are part of it
+      if (!loaded) {
+        return;
+      }
+      if (change.type() == FulfilmentUnitChange.Type.ASSIGNED) {
+        // a warehouse may have been written without going through the use cases, e.g. by
+        // import.sql; it was active when the unit was assigned
+        activeWarehouses.putIfAbsent(warehouse, FulfilmentRoute.of(change.warehouse()));
+        add(productStore, warehouse);
+      } else {
+        remove(productStore, warehouse);
+      }
+      compute(productStore);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void onWarehouseChange(
+      @Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseChange change) {
+    Warehouse warehouse = change.warehouse();
+    lock.lock();
+    try {
+      if (!loaded) {
+        return;
+      }
+      if (change.type() == WarehouseChange.Type.ARCHIVED) {
+        activeWarehouses.remove(warehouse.businessUnitCode);
+      } else {
+        activeWarehouses.put(warehouse.businessUnitCode, FulfilmentRoute.of(warehouse));
+      }
+      // a warehouse fulfils at most a few products, for any number of stores
+      Set<ProductStore> productStores = productStoresByWarehouse.get(warehouse.businessUnitCode);
+      if (productStores != null) {
+        productStores.forEach(this::compute);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void load() {
+    lock.lock();
+    try {
+      if (!loaded) {
+        rebuild(fulfilmentUnitRepository.listAll(), warehouseStore.getAll());
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Replaces the whole table, from the units and the active warehouses
+  void rebuild(Collection<FulfilmentUnit> units, Collection<Warehouse> warehouses) {
+    lock.lock();
+    try {
+      warehousesByProductAndStore.clear();
+      productStoresByWarehouse.clear();
+      activeWarehouses.clear();
+      for (Warehouse warehouse : warehouses) {
+        if (warehouse.archivedAt == null) {
+          activeWarehouses.put(warehouse.businessUnitCode, FulfilmentRoute.of(warehouse));
+        }
+      }
+      for (FulfilmentUnit unit : units) {
+        add(new ProductStore(unit.productId, unit.storeId), unit.warehouseBusinessUnitCode);
+      }
+      routes.clear();
+      warehousesByProductAndStore.keySet().forEach(this::compute);
+      loaded = true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void add(ProductStore productStore, String warehouse) {
+    warehousesByProductAndStore
+        .computeIfAbsent(productStore, key -> new HashSet<>())
+        .add(warehouse);
+    productStoresByWarehouse.computeIfAbsent(warehouse, key -> new HashSet<>()).add(productStore);
+  }
+
+  private void remove(ProductStore productStore, String warehouse) {
+    Set<String> warehouses = warehousesByProductAndStore.get(productStore);
+    if (warehouses != null && warehouses.remove(warehouse) && warehouses.isEmpty()) {
+      warehousesByProductAndStore.remove(productStore);
+    }
+    Set<ProductStore> productStores = productStoresByWarehouse.get(warehouse);
+    if (productStores != null && productStores.remove(productStore) && productStores.isEmpty()) {
+      productStoresByWarehouse.remove(warehouse);
+    }
+  }
+
+  // at most MAX_WAREHOUSES_PER_PRODUCT_AND_STORE routes to sort
+  private void compute(ProductStore productStore) {
+    Set<String> warehouses = warehousesByProductAndStore.get(productStore);
+    List<FulfilmentRoute> computed = new ArrayList<>(warehouses != null ? warehouses.size() : 0);
+    if (warehouses != null) {
+      for (String warehouse : warehouses) {
+        FulfilmentRoute route = activeWarehouses.get(warehouse);
+        if (route != null) {
+          computed.add(route);
+        }
+      }
+    }
+    if (computed.isEmpty()) {
+      routes.remove(productStore);
+    } else {
+      computed.sort(FulfilmentRoute.ORDER);
+      routes.put(productStore, List.copyOf(computed));
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// A warehouse fulfilling a product for a store. The limits on these associations are enforced by
+// FulfilmentConstraintIndex.
+@Entity
+@Table(
+    name = "fulfilment_unit",
+    uniqueConstraints =
+        @UniqueConstraint(columnNames = {"productId", "storeId", "warehouseBusinessUnitCode"}),
+    indexes = {
+      @Index(columnList = "storeId"),
+      @Index(columnList = "warehouseBusinessUnitCode")
+    })
+public class FulfilmentUnit {
+
+  @Id @GeneratedValue public Long id;
+
+  @Column(nullable = false)
+  public Long productId;
+
+  @Column(nullable = false)
+  public Long storeId;
+
+  @Column(nullable = false)
+  public String warehouseBusinessUnitCode;
+
+  public FulfilmentUnit() {}
+
+  public FulfilmentUnit(Long productId, Long storeId, String warehouseBusinessUnitCode) {
+    this.productId = productId;
+    this.storeId = storeId;
+    this.warehouseBusinessUnitCode = warehouseBusinessUnitCode;
+  }
+}
@@ -0,0 +1,13 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+
+// A unit assigned or removed by FulfilmentAssignments, fired as a CDI event. The warehouse is the
+// one the unit was checked against when assigned, null when removed.
+public record FulfilmentUnitChange(Type type, FulfilmentUnit unit, Warehouse warehouse) {
+
+  public enum Type {
+    ASSIGNED,
+    REMOVED
+  }
+}
@@ -0,0 +1,36 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.ArrayList;
+import java.util.List;
+
+@ApplicationScoped
+public class FulfilmentUnitRepository implements PanacheRepository<FulfilmentUnit> {
+
+  // every filter is optional
+  public List<FulfilmentUnit> findMatching(
+      Long productId, Long storeId, String warehouseBusinessUnitCode) {
+    List<String> conditions = new ArrayList<>();
+    Parameters parameters = new Parameters();
+    if (productId != null) {
+      conditions.add("productId = :productId");
+      parameters.and("productId", productId);
+    }
+    if (storeId != null) {
+      conditions.add("storeId = :storeId");
+      parameters.and("storeId", storeId);
+    }
+    if (warehouseBusinessUnitCode != null) {
+      conditions.add("warehouseBusinessUnitCode = :warehouse");
+      parameters.and("warehouse", warehouseBusinessUnitCode);
+    }
+    Sort sort = Sort.by("storeId").and("productId").and("warehouseBusinessUnitCode");
+    if (conditions.isEmpty()) {
+      return listAll(sort);
+    }
+    return list(String.join(" and ", conditions), sort, parameters);
+  }
+}
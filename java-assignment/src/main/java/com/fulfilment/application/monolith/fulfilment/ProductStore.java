@@ -0,0 +1,4 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+// key of the fulfilment units of a product for a store
+record ProductStore(long productId, long storeId) {}
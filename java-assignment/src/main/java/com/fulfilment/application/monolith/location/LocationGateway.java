@@ -2,28 +2,150 @@ package com.fulfilment.application.monolith.location;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 
 @ApplicationScoped
 public class LocationGateway implements LocationResolver {
 
-  private static final List<Location> locations = new ArrayList<>();
+  private static final Logger LOGGER = Logger.getLogger(LocationGateway.class.getName());
 
-  static {
-    locations.add(new Location("ZWOLLE-001", 1, 40));
-    locations.add(new Location("ZWOLLE-002", 2, 50));
-    locations.add(new Location("AMSTERDAM-001", 5, 100));
-    locations.add(new Location("AMSTERDAM-002", 3, 75));
-    locations.add(new Location("TILBURG-001", 1, 40));
-    locations.add(new Location("HELMOND-001", 1, 45));
-    locations.add(new Location("EINDHOVEN-001", 2, 70));
-    locations.add(new Location("VETSBY-001", 1, 90));
+  private static final String DEFAULT_CATALOG = "locations.csv";
+
+  // external catalog file, the catalog bundled with the application is used when not set
+  @ConfigProperty(name = "location.catalog.path")
+  Optional<String> catalogPath;
+
+  // immutable index, replaced as a whole when the catalog changes so reads never need a lock
+  private volatile Map<String, Location> locations;
+
+  // written by the scheduler thread, read by the next refresh, which may run on another one
+  private volatile FileTime catalogLastModified;
+
+  public LocationGateway() {
+    this.locations = index(readDefaultCatalog());
+  }
+
+  LocationGateway(Collection<Location> locations) {
+    this.locations = index(locations);
+  }
+
+  // An external catalog that cannot be read at startup is handled like one that cannot be re-read:
+  // the bundled catalog stays in use, and the file is retried on every refresh until it loads
+  @PostConstruct
+  void loadCatalog() {
+    refresh();
+  }
+
+  // picks up changes of the external catalog, a catalog that cannot be read keeps the current one
+  @Scheduled(
+      every = "${location.catalog.refresh-every:10s}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void refresh() {
+    if (catalogPath == null || catalogPath.isEmpty()) {
+      return;
+    }
+    Path path = Path.of(catalogPath.get());
+    try {
+      if (!Files.getLastModifiedTime(path).equals(catalogLastModified)) {
+        reload(path);
+      }
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warnf(e, "Failed to reload the location catalog from %s", path);
+    }
   }
 
   @Override
   public Location resolveByIdentifier(String identifier) {
-    return locations.stream().filter(location -> location.identification.equals(identifier)).findFirst().orElse(null);
+    return identifier != null ? locations.get(identifier) : null;
+  }
+
+  private void reload(Path path) {
+    try {
+      FileTime lastModified = Files.getLastModifiedTime(path);
+      try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+        locations = index(parse(reader));
+      }
+      catalogLastModified = lastModified;
+      LOGGER.infof("Loaded %d locations from %s", locations.size(), path);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Map<String, Location> index(Collection<Location> locations) {
+    Map<String, Location> index = new HashMap<>(locations.size() * 2);
+    for (Location location : locations) {
+      if (index.put(location.identification, location) != null) {
+        throw new IllegalArgumentException(
+            "Location '" + location.identification + "' is defined more than once.");
+      }
+    }
+    return Collections.unmodifiableMap(index);
+  }
+
+  private static List<Location> readDefaultCatalog() {
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    if (classLoader == null) {
+      classLoader = LocationGateway.class.getClassLoader();
+    }
+    try (InputStream catalog = classLoader.getResourceAsStream(DEFAULT_CATALOG)) {
+      if (catalog == null) {
+        throw new IllegalStateException("Location catalog '" + DEFAULT_CATALOG + "' not found.");
+      }
+      return parse(new InputStreamReader(catalog, StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // one location per line: identification,maxNumberOfWarehouses,maxCapacity
+  static List<Location> parse(Reader catalog) throws IOException {
+    List<Location> locations = new ArrayList<>();
+    BufferedReader reader = new BufferedReader(catalog);
+    int lineNumber = 0;
+    for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+      lineNumber++;
+      line = line.trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] fields = line.split(",");
+      if (fields.length != 3) {
+        throw new IllegalArgumentException(
+            "Invalid location at line " + lineNumber + " of the catalog: " + line);
+      }
+      try {
+        locations.add(
+            new Location(
+                fields[0].trim(),
+                Integer.parseInt(fields[1].trim()),
+                Integer.parseInt(fields[2].trim())));
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException(
+            "Invalid location at line " + lineNumber + " of the catalog: " + line, e);
+      }
+    }
+    return locations;
   }
 }
@@ -6,14 +6,19 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import java.math.BigDecimal;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
 @Cacheable
+@NaturalIdCache(region = ProductRepository.NAME_REGION)
 public class Product {
 
   @Id @GeneratedValue public Long id;
 
-  @Column(length = 40, unique = true)
+  // unique, and resolved to the product through the second-level cache
+  @NaturalId(mutable = true)
+  @Column(length = 40)
   public String name;
 
   @Column(nullable = true)
@@ -2,6 +2,41 @@ package com.fulfilment.application.monolith.products;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import java.util.List;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
 
 @ApplicationScoped
-public class ProductRepository implements PanacheRepository<Product> {}
+public class ProductRepository implements PanacheRepository<Product> {
+
+  public static final String NAME_REGION = "product-by-name";
+
+  public static final String LIST_REGION = "product-list";
+
+  public Product findByName(String name) {
+    if (name == null) {
+      return null;
+    }
+    return getEntityManager().unwrap(Session.class).bySimpleNaturalId(Product.class).load(name);
+  }
+
+  // Selects the listed columns only, into views the session does not keep track of. The result
+  // is cached until a product is written, once with and once without the descriptions.
+  public List<ProductView> listAllByName(boolean withDescription) {
+    String columns = withDescription ? "p.id, p.name, p.description" : "p.id, p.name";
+    return getEntityManager()
+        .createQuery(
+            "select new "
+                + ProductView.class.getName()
+                + "("
+                + columns
+                + ", p.price, p.stock) from Product p order by p.name",
+            ProductView.class)
+        .setHint(HibernateHints.HINT_CACHEABLE, true)
+        .setHint(HibernateHints.HINT_CACHE_REGION, LIST_REGION)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL)
+        .getResultList();
+  }
+}
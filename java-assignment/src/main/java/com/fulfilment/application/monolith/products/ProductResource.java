@@ -2,7 +2,8 @@ package com.fulfilment.application.monolith.products;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import io.quarkus.panache.common.Sort;
+import com.fulfilment.application.monolith.RejectedRequests;
+import com.fulfilment.application.monolith.fulfilment.FulfilmentAssignments;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -13,6 +14,7 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
@@ -28,11 +30,23 @@ public class ProductResource {
 
   @Inject ProductRepository productRepository;
 
+  @Inject FulfilmentAssignments fulfilmentAssignments;
+
   private static final Logger LOGGER = Logger.getLogger(ProductResource.class.getName());
 
+  // the description is only listed with ?fields=description
   @GET
-  public List<Product> get() {
-    return productRepository.listAll(Sort.by("name"));
+  public List<ProductView> get(@QueryParam("fields") String fields) {
+    boolean withDescription = false;
+    if (fields != null && !fields.isBlank()) {
+      for (String field : fields.split(",")) {
+        if (!field.strip().equals("description")) {
+          throw new WebApplicationException("Unknown field '" + field.strip() + "'.", 400);
+        }
+        withDescription = true;
+      }
+    }
+    return productRepository.listAllByName(withDescription);
   }
 
   @GET
@@ -51,6 +65,7 @@ public class ProductResource {
     if (product.id != null) {
       throw new WebApplicationException("Id was invalidly set on request.", 422);
     }
+    checkNameIsFree(product.name, null);
 
     productRepository.persist(product);
     return Response.ok(product).status(201).build();
@@ -69,6 +84,7 @@ public class ProductResource {
     if (entity == null) {
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
+    checkNameIsFree(product.name, id);
 
     entity.name = product.name;
     entity.description = product.description;
@@ -88,24 +104,40 @@ public class ProductResource {
     if (entity == null) {
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
+    fulfilmentAssignments.unassignProduct(id);
     productRepository.delete(entity);
     return Response.status(204).build();
   }
 
+  // another product may not take the name, see Product.name
+  private void checkNameIsFree(String name, Long id) {
+    Product sameName = productRepository.findByName(name);
+    if (sameName != null && !sameName.id.equals(id)) {
+      throw new WebApplicationException("Product with name '" + name + "' already exists.", 422);
+    }
+  }
+
   @Provider
   public static class ErrorMapper implements ExceptionMapper<Exception> {
 
     @Inject ObjectMapper objectMapper;
 
+    @Inject RejectedRequests rejectedRequests;
+
     @Override
     public Response toResponse(Exception exception) {
-      LOGGER.error("Failed to handle request", exception);
-
       int code = 500;
       if (exception instanceof WebApplicationException) {
         code = ((WebApplicationException) exception).getResponse().getStatus();
       }
 
+      if (code >= 500) {
+        LOGGER.error("Failed to handle request", exception);
+      } else {
+        // the expected answer to an invalid request, not worth a stack trace
+        rejectedRequests.record(code, exception);
+      }
+
       ObjectNode exceptionJson = objectMapper.createObjectNode();
       exceptionJson.put("exceptionType", exception.getClass().getName());
       exceptionJson.put("code", code);
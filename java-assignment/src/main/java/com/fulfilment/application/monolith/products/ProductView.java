@@ -0,0 +1,18 @@
+package com.fulfilment.application.monolith.products;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.math.BigDecimal;
+
+// A product as listed by GET /product, read without loading the entity. The description is only
+// read when it is asked for, and left out of the answer otherwise.
+public record ProductView(
+    Long id,
+    String name,
+    @JsonInclude(JsonInclude.Include.NON_NULL) String description,
+    BigDecimal price,
+    int stock) {
+
+  public ProductView(Long id, String name, BigDecimal price, int stock) {
+    this(id, name, null, price, stock);
+  }
+}
@@ -1,18 +1,140 @@
 package com.fulfilment.application.monolith.stores;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 @ApplicationScoped
 public class LegacyStoreManagerGateway {
 
+  // "journal" appends the changes to the StoreSyncJournal, "temp-file" writes a temp file per
+  // change
+  @ConfigProperty(name = "legacy.store-manager.mode", defaultValue = "journal")
+  String mode;
+
+  @ConfigProperty(name = "legacy.store-manager.journal.directory")
+  String journalDirectory;
+
+  @ConfigProperty(name = "legacy.store-manager.journal.segment-size", defaultValue = "16M")
+  MemorySize journalSegmentSize;
+
+  // segments kept on disk, the current one included, older ones are deleted on roll-over
+  @ConfigProperty(name = "legacy.store-manager.journal.retained-segments", defaultValue = "4")
+  int journalRetainedSegments;
+
+  @Inject MeterRegistry meterRegistry;
+
+  private StoreSyncJournal journal;
+
+  private enum Call {
+    CREATE,
+    UPDATE,
+    COMMIT
+  }
+
+  // registered once and indexed by call, nothing is allocated to record a call
+  private final Timer[] latencies = new Timer[Call.values().length];
+
+  private final Counter[] failures = new Counter[Call.values().length];
+
+  @PostConstruct
+  void start() throws IOException {
+    for (Call call : Call.values()) {
+      String operation = call.name().toLowerCase(Locale.ROOT);
+      latencies[call.ordinal()] =
+          Timer.builder("legacy.store-manager.calls")
+              .description("Latency of the calls to the legacy store manager")
+              .tag("operation", operation)
+              .publishPercentileHistogram()
+              .register(meterRegistry);
+      failures[call.ordinal()] =
+          Counter.builder("legacy.store-manager.failures")
+              .description("Calls to the legacy store manager that failed")
+              .tag("operation", operation)
+              .register(meterRegistry);
+    }
+    if ("journal".equals(mode)) {
+      journal =
+          new StoreSyncJournal(
+              Path.of(journalDirectory),
+              (int) journalSegmentSize.asLongValue(),
+              journalRetainedSegments);
+    }
+  }
+
+  @PreDestroy
+  void closeJournal() {
+    if (journal != null) {
+      journal.close();
+    }
+  }
+
   public void createStoreOnLegacySystem(Store store) {
+    long start = System.nanoTime();
+    try {
+      create(store);
+    } catch (RuntimeException e) {
+      failures[Call.CREATE.ordinal()].increment();
+      throw e;
+    } finally {
+      latencies[Call.CREATE.ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  public void updateStoreOnLegacySystem(Store store) {
+    long start = System.nanoTime();
+    try {
+      update(store);
+    } catch (RuntimeException e) {
+      failures[Call.UPDATE.ordinal()].increment();
+      throw e;
+    } finally {
+      latencies[Call.UPDATE.ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  // Makes every change handed over so far durable on the legacy side, callers sending a batch of
+  // changes call it once for the whole batch.
+  public void commit() {
+    long start = System.nanoTime();
+    try {
+      if (journal != null) {
+        journal.commit(journal.position());
+      }
+    } catch (RuntimeException e) {
+      failures[Call.COMMIT.ordinal()].increment();
+      throw e;
+    } finally {
+      latencies[Call.COMMIT.ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void create(Store store) {
+    if (journal != null) {
+      journal.append(StoreSyncOperation.CREATE, store);
+      return;
+    }
     // just to emulate as this would send this to a legacy system, let's write a temp file with the
     writeToFile(store);
   }
 
-  public void updateStoreOnLegacySystem(Store store) {
+  private void update(Store store) {
+    if (journal != null) {
+      journal.append(StoreSyncOperation.UPDATE, store);
+      return;
+    }
     // just to emulate as this would send this to a legacy system, let's write a temp file with the
     writeToFile(store);
   }
@@ -44,8 +166,9 @@ public class LegacyStoreManagerGateway {
       Files.delete(tempFile);
       System.out.println("Temporary file deleted.");
 
-    } catch (Exception e) {
-      e.printStackTrace();
+    } catch (IOException e) {
+      // surfaced so that the change is retried instead of silently lost
+      throw new UncheckedIOException(e);
     }
   }
 }
@@ -1,15 +1,29 @@
 package com.fulfilment.application.monolith.stores;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.panache.common.Sort;
 import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import java.util.List;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.jpa.HibernateHints;
 
 @Entity
 @Cacheable
+@NaturalIdCache(region = Store.NAME_REGION)
 public class Store extends PanacheEntity {
 
-  @Column(length = 40, unique = true)
+  public static final String NAME_REGION = "store-by-name";
+
+  public static final String LIST_REGION = "store-list";
+
+  // unique, and resolved to the store through the second-level cache
+  @NaturalId(mutable = true)
+  @Column(length = 40)
   public String name;
 
   public int quantityProductsInStock;
@@ -19,4 +33,23 @@ public class Store extends PanacheEntity {
   public Store(String name) {
     this.name = name;
   }
+
+  public static Store findByName(String name) {
+    if (name == null) {
+      return null;
+    }
+    return getEntityManager().unwrap(Session.class).bySimpleNaturalId(Store.class).load(name);
+  }
+
+  // Selects the columns of the views only, which the session does not keep track of. The result
+  // is cached until a store is written.
+  public static List<StoreView> listAllByName() {
+    return Store.findAll(Sort.by("name"))
+        .project(StoreView.class)
+        .withHint(HibernateHints.HINT_CACHEABLE, true)
+        .withHint(HibernateHints.HINT_CACHE_REGION, LIST_REGION)
+        .withHint(HibernateHints.HINT_READ_ONLY, true)
+        .withHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL)
+        .list();
+  }
 }
@@ -0,0 +1,188 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+// Drains the store outbox in batches to the legacy store manager, off the request threads.
+// Entries of the same store are always propagated in the order they were written: an entry is
+// only picked once all the previous entries of its store went through. Changes of a store are held
+// for the coalescing window after the first one, and all the changes pending by then are sent as a
+// single call carrying the latest state.
+//
+// Every instance of the application runs a dispatcher. A dispatcher claims its batch before
+// sending it: the claims are made one at a time across instances, under a transaction-scoped
+// advisory lock, and an entry claimed by another dispatcher, or preceded by one of its store that
+// is, is left alone until the claim expires. An entry is therefore sent by a single dispatcher,
+// unless that dispatcher took longer than store.outbox.claim-timeout to send it.
+@ApplicationScoped
+public class StoreOutboxDispatcher {
+
+  private static final Logger LOGGER = Logger.getLogger(StoreOutboxDispatcher.class.getName());
+
+  private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+
+  private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+  // key of the advisory lock the claims are made under, the same for every instance
+  private static final long CLAIM_LOCK = 0x73746f72655f6f62L;
+
+  // unclaimed due entries that are not preceded by a pending entry of the same store that is
+  // still waiting for its retry or claimed, of stores whose oldest pending change is older than
+  // the coalescing window
+  private static final String DUE_ENTRIES =
+      "from StoreOutboxEntry e"
+          + " where (e.nextAttemptAt is null or e.nextAttemptAt <= :now)"
+          + " and (e.claimedUntil is null or e.claimedUntil <= :now)"
+          + " and not exists (select 1 from StoreOutboxEntry p"
+          + "   where p.storeId = e.storeId and p.id < e.id"
+          + "   and (p.nextAttemptAt > :now or p.claimedUntil > :now))"
+          + " and exists (select 1 from StoreOutboxEntry o"
+          + "   where o.storeId = e.storeId and o.createdAt <= :settled)"
+          + " order by e.id";
+
+  @Inject LegacyStoreManagerGateway legacyStoreManagerGateway;
+
+  @Inject MeterRegistry meterRegistry;
+
+  @ConfigProperty(name = "store.outbox.batch-size", defaultValue = "100")
+  int batchSize;
+
+  @ConfigProperty(name = "store.outbox.coalescing-window", defaultValue = "1s")
+  Duration coalescingWindow;
+
+  // longer than sending a batch can take, or another instance sends the batch again
+  @ConfigProperty(name = "store.outbox.claim-timeout", defaultValue = "5m")
+  Duration claimTimeout;
+
+  private final AtomicLong lagInMillis = new AtomicLong();
+
+  private Counter dispatched;
+
+  private Counter coalesced;
+
+  private Counter failed;
+
+  @PostConstruct
+  void registerMetrics() {
+    Gauge.builder("store.outbox.lag", lagInMillis, lag -> lag.get() / 1000.0)
+        .description("Age of the oldest store change not yet propagated to the legacy system")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+    dispatched = meterRegistry.counter("store.outbox.dispatched");
+    coalesced =
+        Counter.builder("store.outbox.coalesced")
+            .description("Calls to the legacy system saved by merging changes of the same store")
+            .register(meterRegistry);
+    failed = meterRegistry.counter("store.outbox.failed");
+  }
+
+  @Scheduled(
+      every = "${store.outbox.dispatch-every:1s}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  public void dispatch() {
+    List<StoreOutboxEntry> entries = QuarkusTransaction.requiringNew().call(this::claim);
+
+    List<StoreSyncCommand> commands = StoreSyncCoalescer.coalesce(entries);
+    List<StoreOutboxEntry> sentEntries = new ArrayList<>();
+    List<StoreOutboxEntry> failedEntries = new ArrayList<>();
+    for (StoreSyncCommand command : commands) {
+      try {
+        send(command);
+        sentEntries.addAll(command.entries);
+      } catch (RuntimeException e) {
+        LOGGER.warnf(e, "Failed to propagate the changes of store %d", command.store.id);
+        failedEntries.addAll(command.entries);
+      }
+    }
+    List<Long> dispatchedIds = new ArrayList<>();
+    if (!sentEntries.isEmpty()) {
+      try {
+        // a single durable write on the legacy side for the whole batch
+        legacyStoreManagerGateway.commit();
+        sentEntries.forEach(entry -> dispatchedIds.add(entry.id));
+      } catch (RuntimeException e) {
+        LOGGER.warn("Failed to commit the changes sent to the legacy system", e);
+        failedEntries.addAll(sentEntries);
+      }
+    }
+
+    QuarkusTransaction.requiringNew()
+        .run(
+            () -> {
+              if (!dispatchedIds.isEmpty()) {
+                StoreOutboxEntry.delete("id in ?1", dispatchedIds);
+              }
+              for (StoreOutboxEntry entry : failedEntries) {
+                StoreOutboxEntry.update(
+                    "attempts = ?1, nextAttemptAt = ?2, claimedUntil = null where id = ?3",
+                    entry.attempts + 1,
+                    LocalDateTime.now().plus(backoff(entry.attempts + 1)),
+                    entry.id);
+              }
+              StoreOutboxEntry oldest = StoreOutboxEntry.find("order by id").firstResult();
+              lagInMillis.set(
+                  oldest != null
+                      ? Duration.between(oldest.createdAt, LocalDateTime.now()).toMillis()
+                      : 0);
+            });
+
+    dispatched.increment(dispatchedIds.size());
+    coalesced.increment(entries.size() - commands.size());
+    failed.increment(failedEntries.size());
+  }
+
+  // The due entries, claimed for this dispatcher until the claim timeout. Nothing is claimed while
+  // another instance is claiming: it gets the entries this round, this one the next.
+  private List<StoreOutboxEntry> claim() {
+    Boolean locked =
+        (Boolean)
+            Panache.getEntityManager()
+                .createNativeQuery("select pg_try_advisory_xact_lock(?1)")
+                .setParameter(1, CLAIM_LOCK)
+                .getSingleResult();
+    if (!Boolean.TRUE.equals(locked)) {
+      return List.of();
+    }
+    LocalDateTime now = LocalDateTime.now();
+    List<StoreOutboxEntry> entries =
+        StoreOutboxEntry.<StoreOutboxEntry>find(
+                DUE_ENTRIES,
+                Parameters.with("now", now).and("settled", now.minus(coalescingWindow)))
+            .page(0, batchSize)
+            .list();
+    if (!entries.isEmpty()) {
+      StoreOutboxEntry.update(
+          "claimedUntil = ?1 where id in ?2",
+          now.plus(claimTimeout),
+          entries.stream().map(entry -> entry.id).toList());
+    }
+    return entries;
+  }
+
+  private void send(StoreSyncCommand command) {
+    switch (command.operation) {
+      case CREATE -> legacyStoreManagerGateway.createStoreOnLegacySystem(command.store);
+      case UPDATE -> legacyStoreManagerGateway.updateStoreOnLegacySystem(command.store);
+    }
+  }
+
+  private static Duration backoff(int attempts) {
+    Duration backoff = INITIAL_BACKOFF.multipliedBy(1L << Math.min(attempts - 1, 20));
+    return backoff.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff;
+  }
+}
@@ -0,0 +1,60 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+// A store change waiting to be propagated to the legacy store manager. Entries are written in the
+// same transaction as the change itself, so they exist if and only if the change was committed.
+@Entity
+@Table(
+    name = "store_outbox",
+    indexes = @Index(name = "store_outbox_store_idx", columnList = "storeId"))
+public class StoreOutboxEntry extends PanacheEntity {
+
+  public Long storeId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 10)
+  public StoreSyncOperation operation;
+
+  // state of the store at the time of the change
+  @Column(length = 40)
+  public String name;
+
+  public int quantityProductsInStock;
+
+  public LocalDateTime createdAt;
+
+  public int attempts;
+
+  // set after a failed attempt, the entry is not retried before this moment
+  public LocalDateTime nextAttemptAt;
+
+  // set while a dispatcher is sending the entry; once passed, another dispatcher may take it over
+  public LocalDateTime claimedUntil;
+
+  public StoreOutboxEntry() {}
+
+  public static void enqueue(StoreSyncOperation operation, Store store) {
+    StoreOutboxEntry entry = new StoreOutboxEntry();
+    entry.storeId = store.id;
+    entry.operation = operation;
+    entry.name = store.name;
+    entry.quantityProductsInStock = store.quantityProductsInStock;
+    entry.createdAt = LocalDateTime.now();
+    entry.persist();
+  }
+
+  public Store toStore() {
+    Store store = new Store(name);
+    store.id = storeId;
+    store.quantityProductsInStock = quantityProductsInStock;
+    return store;
+  }
+}
@@ -2,11 +2,11 @@ package com.fulfilment.application.monolith.stores;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import io.quarkus.panache.common.Sort;
+import com.fulfilment.application.monolith.RejectedRequests;
+import com.fulfilment.application.monolith.fulfilment.FulfilmentAssignments;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
-import jakarta.transaction.TransactionSynchronizationRegistry;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -28,15 +28,13 @@ import org.jboss.logging.Logger;
 @Consumes("application/json")
 public class StoreResource {
 
-  @Inject LegacyStoreManagerGateway legacyStoreManagerGateway;
-
-  @Inject TransactionSynchronizationRegistry transactionSynchronizationRegistry;
-
   private static final Logger LOGGER = Logger.getLogger(StoreResource.class.getName());
 
+  @Inject FulfilmentAssignments fulfilmentAssignments;
+
   @GET
-  public List<Store> get() {
-    return Store.listAll(Sort.by("name"));
+  public List<StoreView> get() {
+    return Store.listAllByName();
   }
 
   @GET
@@ -55,22 +53,12 @@ public class StoreResource {
     if (store.id != null) {
       throw new WebApplicationException("Id was invalidly set on request.", 422);
     }
+    checkNameIsFree(store.name, null);
 
     store.persist();
 
-    transactionSynchronizationRegistry.registerInterposedSynchronization(
-        new jakarta.transaction.Synchronization() {
-          @Override
-          public void beforeCompletion() {
-          }
-
-          @Override
-          public void afterCompletion(int status) {
-            if (status == jakarta.transaction.Status.STATUS_COMMITTED) {
-              legacyStoreManagerGateway.createStoreOnLegacySystem(store);
-            }
-          }
-        });
+    // propagated to the legacy system by the StoreOutboxDispatcher once committed
+    StoreOutboxEntry.enqueue(StoreSyncOperation.CREATE, store);
 
     return Response.ok(store).status(201).build();
   }
@@ -88,24 +76,12 @@ public class StoreResource {
     if (entity == null) {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
+    checkNameIsFree(updatedStore.name, id);
 
     entity.name = updatedStore.name;
     entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
 
-    final Store storeToSync = entity;
-    transactionSynchronizationRegistry.registerInterposedSynchronization(
-        new jakarta.transaction.Synchronization() {
-          @Override
-          public void beforeCompletion() {
-          }
-
-          @Override
-          public void afterCompletion(int status) {
-            if (status == jakarta.transaction.Status.STATUS_COMMITTED) {
-              legacyStoreManagerGateway.updateStoreOnLegacySystem(storeToSync);
-            }
-          }
-        });
+    StoreOutboxEntry.enqueue(StoreSyncOperation.UPDATE, entity);
 
     return entity;
   }
@@ -125,6 +101,7 @@ public class StoreResource {
     }
 
     if (updatedStore.name != null) {
+      checkNameIsFree(updatedStore.name, id);
       entity.name = updatedStore.name;
     }
 
@@ -132,20 +109,7 @@ public class StoreResource {
       entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
     }
 
-    final Store storeToSync = entity;
-    transactionSynchronizationRegistry.registerInterposedSynchronization(
-        new jakarta.transaction.Synchronization() {
-          @Override
-          public void beforeCompletion() {
-          }
-
-          @Override
-          public void afterCompletion(int status) {
-            if (status == jakarta.transaction.Status.STATUS_COMMITTED) {
-              legacyStoreManagerGateway.updateStoreOnLegacySystem(storeToSync);
-            }
-          }
-        });
+    StoreOutboxEntry.enqueue(StoreSyncOperation.UPDATE, entity);
 
     return entity;
   }
@@ -158,24 +122,40 @@ public class StoreResource {
     if (entity == null) {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
+    fulfilmentAssignments.unassignStore(id);
     entity.delete();
     return Response.status(204).build();
   }
 
+  // names are unique, the natural id lookup is answered from the second-level cache when possible
+  private static void checkNameIsFree(String name, Long id) {
+    Store sameName = Store.findByName(name);
+    if (sameName != null && !sameName.id.equals(id)) {
+      throw new WebApplicationException("Store with name '" + name + "' already exists.", 422);
+    }
+  }
+
   @Provider
   public static class ErrorMapper implements ExceptionMapper<Exception> {
 
     @Inject ObjectMapper objectMapper;
 
+    @Inject RejectedRequests rejectedRequests;
+
     @Override
     public Response toResponse(Exception exception) {
-      LOGGER.error("Failed to handle request", exception);
-
       int code = 500;
       if (exception instanceof WebApplicationException) {
         code = ((WebApplicationException) exception).getResponse().getStatus();
       }
 
+      if (code >= 500) {
+        LOGGER.error("Failed to handle request", exception);
+      } else {
+        // the expected answer to an invalid request, not worth a stack trace
+        rejectedRequests.record(code, exception);
+      }
+
       ObjectNode exceptionJson = objectMapper.createObjectNode();
       exceptionJson.put("exceptionType", exception.getClass().getName());
       exceptionJson.put("code", code);
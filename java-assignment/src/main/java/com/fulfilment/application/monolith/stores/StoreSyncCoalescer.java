@@ -0,0 +1,29 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class StoreSyncCoalescer {
+
+  private StoreSyncCoalescer() {}
+
+  // Collapses the pending entries of every store into a single command carrying the latest state.
+  // A store that was created and then updated is sent as a single creation with its latest state.
+  // Entries are expected in the order they were written, and commands keep the order in which the
+  // stores first appear.
+  public static List<StoreSyncCommand> coalesce(List<StoreOutboxEntry> entries) {
+    Map<Long, StoreSyncCommand> commands = new LinkedHashMap<>();
+    for (StoreOutboxEntry entry : entries) {
+      StoreSyncCommand command = commands.get(entry.storeId);
+      if (command == null) {
+        commands.put(entry.storeId, new StoreSyncCommand(entry));
+      } else {
+        command.store = entry.toStore();
+        command.entries.add(entry);
+      }
+    }
+    return new ArrayList<>(commands.values());
+  }
+}
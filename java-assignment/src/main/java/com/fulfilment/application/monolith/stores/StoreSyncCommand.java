@@ -0,0 +1,21 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A single call to the legacy store manager, standing for one or more outbox entries of a store.
+public class StoreSyncCommand {
+
+  public StoreSyncOperation operation;
+
+  // latest committed state of the store among the entries
+  public Store store;
+
+  public final List<StoreOutboxEntry> entries = new ArrayList<>();
+
+  public StoreSyncCommand(StoreOutboxEntry entry) {
+    this.operation = entry.operation;
+    this.store = entry.toStore();
+    this.entries.add(entry);
+  }
+}
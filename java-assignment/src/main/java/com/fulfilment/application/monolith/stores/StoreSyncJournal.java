@@ -0,0 +1,284 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Append-only journal of store changes, written to pre-allocated memory-mapped segment files.
+//
+// Every record is laid out as [body length][CRC32 of the body][body], and a zero length marks the
+// end of the written part of a segment. Appending only copies the record into the mapped segment;
+// durability is obtained with commit, which forces the segment to disk once for all the records
+// appended so far (group commit). When a record does not fit in the current segment, the segment
+// is forced and the journal rolls over to a new one.
+//
+// Only the last retainedSegments segments are kept, the current one included: older segments are
+// deleted when the journal opens and whenever it rolls over, so a journal never outgrows
+// retainedSegments * segmentSize on disk. Replay reads what is left.
+public class StoreSyncJournal implements Closeable {
+
+  private static final int HEADER_SIZE = 8;
+
+  private static final String SEGMENT_PREFIX = "store-sync-";
+
+  private static final String SEGMENT_SUFFIX = ".journal";
+
+  private final Path directory;
+
+  private final int segmentSize;
+
+  private final int retainedSegments;
+
+  private final ReentrantLock appendLock = new ReentrantLock();
+
+  private final ReentrantLock commitLock = new ReentrantLock();
+
+  private long segmentIndex;
+
+  private MappedByteBuffer segment;
+
+  // positions are global: segment index * segment size + offset in the segment
+  private long writePosition;
+
+  private volatile long committedPosition;
+
+  public StoreSyncJournal(Path directory, int segmentSize, int retainedSegments)
+      throws IOException {
+    if (retainedSegments < 1) {
+      throw new IllegalArgumentException("At least the current journal segment must be retained.");
+    }
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.retainedSegments = retainedSegments;
+    Files.createDirectories(directory);
+
+    List<Path> segments = segments(directory);
+    if (segments.isEmpty()) {
+      openSegment(0);
+    } else {
+      Path last = segments.get(segments.size() - 1);
+      openSegment(indexOf(last));
+      recover();
+      deleteExpiredSegments();
+    }
+    committedPosition = writePosition;
+  }
+
+  // Copies the change into the journal and returns the position to commit to make it durable.
+  public long append(StoreSyncOperation operation, Store store) {
+    byte[] body = encode(operation, store);
+    if (HEADER_SIZE + body.length > segmentSize) {
+      throw new IllegalArgumentException(
+          "Record of " + body.length + " bytes does not fit in a journal segment.");
+    }
+    CRC32 crc = new CRC32();
+    crc.update(body);
+
+    appendLock.lock();
+    try {
+      if (segment.remaining() < HEADER_SIZE + body.length) {
+        roll();
+      }
+      segment.putInt(body.length);
+      segment.putInt((int) crc.getValue());
+      segment.put(body);
+      writePosition = segmentIndex * segmentSize + segment.position();
+      return writePosition;
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  // Makes every record up to the given position durable. Concurrent committers share a single
+  // force of the segment: whoever forces it covers all the records appended until then.
+  public void commit(long position) {
+    if (committedPosition >= position) {
+      return;
+    }
+    commitLock.lock();
+    try {
+      if (committedPosition >= position) {
+        return;
+      }
+      MappedByteBuffer toForce;
+      long target;
+      appendLock.lock();
+      try {
+        toForce = segment;
+        target = writePosition;
+      } finally {
+        appendLock.unlock();
+      }
+      toForce.force();
+      committedPosition = Math.max(committedPosition, target);
+    } finally {
+      commitLock.unlock();
+    }
+  }
+
+  public long position() {
+    appendLock.lock();
+    try {
+      return writePosition;
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    commit(position());
+  }
+
+  // Reads back every complete record of the journal in the given directory, in append order.
+  public static void replay(Path directory, BiConsumer<StoreSyncOperation, Store> consumer)
+      throws IOException {
+    for (Path path : segments(directory)) {
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        while (readRecord(buffer, consumer)) {
+          // keep reading until the end of the written part of the segment
+        }
+      }
+    }
+  }
+
+  private void roll() {
+    // records of the previous segment are durable before anything is written to the next one
+    segment.force();
+    committedPosition = Math.max(committedPosition, writePosition);
+    try {
+      openSegment(segmentIndex + 1);
+      deleteExpiredSegments();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void openSegment(long index) throws IOException {
+    Path path =
+        directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    try (FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      // mapping the whole segment pre-allocates the file, the mapping outlives the channel
+      segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+    segmentIndex = index;
+    writePosition = index * segmentSize;
+  }
+
+  private void deleteExpiredSegments() throws IOException {
+    for (Path path : segments(directory)) {
+      if (indexOf(path) <= segmentIndex - retainedSegments) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+
+  // Positions the segment after its last complete record and wipes whatever a crash left behind.
+  private void recover() {
+    ByteBuffer reader = segment.duplicate();
+    while (readRecord(reader, (operation, store) -> {})) {
+      // skip over the valid records
+    }
+    int end = reader.position();
+    segment.position(end);
+    for (int i = end; i < segmentSize; i++) {
+      if (segment.get(i) != 0) {
+        segment.put(i, (byte) 0);
+      }
+    }
+    writePosition = segmentIndex * segmentSize + end;
+  }
+
+  private static boolean readRecord(
+      ByteBuffer buffer, BiConsumer<StoreSyncOperation, Store> consumer) {
+    int start = buffer.position();
+    if (buffer.remaining() < HEADER_SIZE) {
+      return false;
+    }
+    int length = buffer.getInt();
+    int checksum = buffer.getInt();
+    if (length <= 0 || length > buffer.remaining()) {
+      buffer.position(start);
+      return false;
+    }
+    byte[] body = new byte[length];
+    buffer.get(body);
+    CRC32 crc = new CRC32();
+    crc.update(body);
+    if ((int) crc.getValue() != checksum) {
+      // torn write, nothing after it was acknowledged
+      buffer.position(start);
+      return false;
+    }
+    decode(body, consumer);
+    return true;
+  }
+
+  private static byte[] encode(StoreSyncOperation operation, Store store) {
+    byte[] name = store.name != null ? store.name.getBytes(StandardCharsets.UTF_8) : null;
+    ByteBuffer body = ByteBuffer.allocate(1 + 8 + 4 + 4 + (name != null ? name.length : 0));
+    body.put((byte) operation.ordinal());
+    body.putLong(store.id != null ? store.id : -1);
+    body.putInt(store.quantityProductsInStock);
+    body.putInt(name != null ? name.length : -1);
+    if (name != null) {
+      body.put(name);
+    }
+    return body.array();
+  }
+
+  private static void decode(byte[] bytes, BiConsumer<StoreSyncOperation, Store> consumer) {
+    ByteBuffer body = ByteBuffer.wrap(bytes);
+    StoreSyncOperation operation = StoreSyncOperation.values()[body.get()];
+    long id = body.getLong();
+    int quantity = body.getInt();
+    int nameLength = body.getInt();
+    String name = null;
+    if (nameLength >= 0) {
+      byte[] nameBytes = new byte[nameLength];
+      body.get(nameBytes);
+      name = new String(nameBytes, StandardCharsets.UTF_8);
+    }
+    Store store = new Store(name);
+    store.id = id >= 0 ? id : null;
+    store.quantityProductsInStock = quantity;
+    consumer.accept(operation, store);
+  }
+
+  private static List<Path> segments(Path directory) throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+          .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+          .sorted()
+          .toList();
+    }
+  }
+
+  private static long indexOf(Path segment) {
+    String fileName = segment.getFileName().toString();
+    return Long.parseLong(
+        fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+  }
+}
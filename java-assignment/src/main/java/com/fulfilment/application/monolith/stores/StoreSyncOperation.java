@@ -0,0 +1,6 @@
+package com.fulfilment.application.monolith.stores;
+
+public enum StoreSyncOperation {
+  CREATE,
+  UPDATE
+}
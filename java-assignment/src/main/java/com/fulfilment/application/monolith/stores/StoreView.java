@@ -0,0 +1,4 @@
+package com.fulfilment.application.monolith.stores;
+
+// A store as listed by GET /store, read without loading the entity
+public record StoreView(Long id, String name, int quantityProductsInStock) {}
@@ -0,0 +1,31 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Aggregate of the active warehouses per location, maintained by WarehouseRepository in the same
+// transaction as every warehouse write so admission checks only need a single keyed read.
+@Entity
+@Table(name = "location_occupancy")
+public class DbLocationOccupancy {
+
+  @Id public String location;
+
+  public int activeWarehouses;
+
+  public int totalCapacity;
+
+  public int totalStock;
+
+  public DbLocationOccupancy() {}
+
+  public DbLocationOccupancy(String location) {
+    this.location = location;
+  }
+
+  public LocationOccupancy toLocationOccupancy() {
+    return new LocationOccupancy(location, activeWarehouses, totalCapacity, totalStock);
+  }
+}
@@ -5,17 +5,30 @@ import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
-@Table(name = "warehouse")
+@Table(
+    name = "warehouse",
+    // businessUnitCode is covered by the unique key of the natural id
+    indexes = {@Index(name = "warehouse_location_idx", columnList = "location, businessUnitCode")})
 @Cacheable
+@NaturalIdCache(region = DbWarehouse.BUSINESS_UNIT_CODE_REGION)
 public class DbWarehouse {
 
+  public static final String BUSINESS_UNIT_CODE_REGION = "warehouse-by-code";
+
+  // active warehouse listings, invalidated by Hibernate on every write of the warehouse table
+  public static final String ACTIVE_QUERY_REGION = "warehouse-active";
+
   @Id @GeneratedValue public Long id;
 
-  public String businessUnitCode;
+  // never changes once created, a replacement keeps the code of the warehouse it replaces
+  @NaturalId public String businessUnitCode;
 
   public String location;
 
@@ -27,6 +40,9 @@ public class DbWarehouse {
 
   public LocalDateTime archivedAt;
 
+  // the latest generation of the warehouse, kept in DbWarehouseGeneration along with the others
+  public int generation;
+
   public DbWarehouse() {}
 
   public Warehouse toWarehouse() {
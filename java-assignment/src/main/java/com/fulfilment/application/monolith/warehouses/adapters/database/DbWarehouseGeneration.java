@@ -0,0 +1,90 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseGeneration;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import org.hibernate.annotations.Immutable;
+
+// Append-only history of the warehouse table, one row per generation. The primary key serves the
+// history of a warehouse, the as-of index the lookup of the generation valid at a given time: a
+// single descent of the index per warehouse, however many generations it has.
+@Entity
+@Table(
+    name = "warehouse_generation",
+    indexes = {
+      @Index(
+          name = "warehouse_generation_as_of_idx",
+          columnList = "businessUnitCode, validFrom, generation")
+    })
+@Immutable
+@IdClass(DbWarehouseGeneration.Key.class)
+public class DbWarehouseGeneration {
+
+  @Id public String businessUnitCode;
+
+  @Id public int generation;
+
+  public LocalDateTime validFrom;
+
+  public String location;
+
+  public Integer capacity;
+
+  public Integer stock;
+
+  public LocalDateTime createdAt;
+
+  public LocalDateTime archivedAt;
+
+  public DbWarehouseGeneration() {}
+
+  // the current state of the warehouse, as of the given time
+  public DbWarehouseGeneration(DbWarehouse dbWarehouse, LocalDateTime validFrom) {
+    this.businessUnitCode = dbWarehouse.businessUnitCode;
+    this.generation = dbWarehouse.generation;
+    this.validFrom = validFrom;
+    this.location = dbWarehouse.location;
+    this.capacity = dbWarehouse.capacity;
+    this.stock = dbWarehouse.stock;
+    this.createdAt = dbWarehouse.createdAt;
+    this.archivedAt = dbWarehouse.archivedAt;
+  }
+
+  public WarehouseGeneration toWarehouseGeneration() {
+    var warehouse = new Warehouse();
+    warehouse.businessUnitCode = this.businessUnitCode;
+    warehouse.location = this.location;
+    warehouse.capacity = this.capacity;
+    warehouse.stock = this.stock;
+    warehouse.createdAt = this.createdAt;
+    warehouse.archivedAt = this.archivedAt;
+    return new WarehouseGeneration(this.generation, this.validFrom, warehouse);
+  }
+
+  public static class Key implements Serializable {
+    public String businessUnitCode;
+
+    public int generation;
+
+    public Key() {}
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Key key
+          && generation == key.generation
+          && Objects.equals(businessUnitCode, key.businessUnitCode);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(businessUnitCode, generation);
+    }
+  }
+}
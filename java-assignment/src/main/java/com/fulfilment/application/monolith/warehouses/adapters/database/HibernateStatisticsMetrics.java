@@ -0,0 +1,116 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.products.Product;
+import com.fulfilment.application.monolith.products.ProductRepository;
+import com.fulfilment.application.monolith.stores.Store;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.util.List;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+// quarkus.hibernate-orm.metrics.enabled publishes the raw Hibernate statistics, this adds the
+// ratios derived from them and the fill level of the cache regions configured in
+// application.properties. There is no Hibernate without a database.
+@ApplicationScoped
+@UnlessBuildProperty(
+    name = "warehouse.store.kind",
+    stringValue = "in-memory",
+    enableIfMissing = true)
+public class HibernateStatisticsMetrics {
+
+  // entity regions are named after their entity
+  static final List<String> REGIONS =
+      List.of(
+          DbWarehouse.class.getName(),
+          DbWarehouse.BUSINESS_UNIT_CODE_REGION,
+          DbWarehouse.ACTIVE_QUERY_REGION,
+          Store.class.getName(),
+          Store.NAME_REGION,
+          Store.LIST_REGION,
+          Product.class.getName(),
+          ProductRepository.NAME_REGION,
+          ProductRepository.LIST_REGION);
+
+  // Quarkus sizes the regions that are not configured to 10000 entries
+  private static final long DEFAULT_OBJECT_COUNT = 10_000;
+
+  @Inject SessionFactory sessionFactory;
+
+  @Inject MeterRegistry meterRegistry;
+
+  void registerMetrics(@Observes StartupEvent event) {
+    Statistics statistics = sessionFactory.getStatistics();
+    Gauge.builder(
+            "hibernate.second.level.cache.hit.ratio",
+            statistics,
+            HibernateStatisticsMetrics::secondLevelCacheHitRatio)
+        .description("Share of the second-level cache lookups served from the cache")
+        .register(meterRegistry);
+    Gauge.builder(
+            "hibernate.query.cache.hit.ratio",
+            statistics,
+            HibernateStatisticsMetrics::queryCacheHitRatio)
+        .description("Share of the query cache lookups served from the cache")
+        .register(meterRegistry);
+
+    for (String region : REGIONS) {
+      Gauge.builder(
+              "hibernate.cache.region.entries",
+              statistics,
+              s -> entries(s.getCacheRegionStatistics(region)))
+          .description("Entries held in the second-level cache region")
+          .tag("region", region)
+          .register(meterRegistry);
+      double maxEntries = maxEntries(region);
+      Gauge.builder("hibernate.cache.region.max.entries", () -> maxEntries)
+          .description("Entries the second-level cache region is sized for")
+          .tag("region", region)
+          .register(meterRegistry);
+      Gauge.builder(
+              "hibernate.cache.region.hit.ratio",
+              statistics,
+              s -> hitRatio(s.getCacheRegionStatistics(region)))
+          .description("Share of the lookups in the region served from the cache")
+          .tag("region", region)
+          .register(meterRegistry);
+    }
+  }
+
+  private static double secondLevelCacheHitRatio(Statistics statistics) {
+    return ratio(
+        statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount());
+  }
+
+  private static double queryCacheHitRatio(Statistics statistics) {
+    return ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount());
+  }
+
+  // null until the region is first used
+  private static double entries(CacheRegionStatistics region) {
+    return region != null ? Math.max(region.getElementCountInMemory(), 0) : 0;
+  }
+
+  private static double hitRatio(CacheRegionStatistics region) {
+    return region != null ? ratio(region.getHitCount(), region.getMissCount()) : Double.NaN;
+  }
+
+  private static double maxEntries(String region) {
+    return ConfigProvider.getConfig()
+        .getOptionalValue(
+            "quarkus.hibernate-orm.cache.\"" + region + "\".memory.object-count", Long.class)
+        .orElse(DEFAULT_OBJECT_COUNT);
+  }
+
+  private static double ratio(long hits, long misses) {
+    long lookups = hits + misses;
+    return lookups == 0 ? Double.NaN : (double) hits / lookups;
+  }
+}
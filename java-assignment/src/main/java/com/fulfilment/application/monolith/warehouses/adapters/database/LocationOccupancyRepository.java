@@ -0,0 +1,83 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.hibernate.Session;
+
+@ApplicationScoped
+public class LocationOccupancyRepository
+    implements PanacheRepositoryBase<DbLocationOccupancy, String> {
+
+  public LocationOccupancy findByLocation(String location) {
+    // projected so that the unlocked read never becomes a managed (and later locked) instance
+    LocationOccupancy occupancy =
+        this.find("location", location).project(LocationOccupancy.class).firstResult();
+    return occupancy != null ? occupancy : LocationOccupancy.empty(location);
+  }
+
+  // Takes a row-level lock on the occupancy of the location, held until the current transaction
+  // ends. Writes targeting the same location are serialized, other locations are not affected.
+  public DbLocationOccupancy lock(String location) {
+    DbLocationOccupancy occupancy = this.findById(location, LockModeType.PESSIMISTIC_WRITE);
+    if (occupancy == null) {
+      create(location);
+      occupancy = this.findById(location, LockModeType.PESSIMISTIC_WRITE);
+    }
+    return occupancy;
+  }
+
+  // First warehouse at this location: concurrent writers race to create the row, the losers
+  // simply lock the row created by the winner. The insert is guarded by a savepoint, standard SQL
+  // unlike an upsert, so that losing the race neither aborts the transaction nor needs a second
+  // connection. The savepoint is set through statements: the pool refuses Connection.rollback
+  // while the connection is enlisted in the transaction.
+  private void create(String location) {
+    getEntityManager()
+        .unwrap(Session.class)
+        .doWork(
+            connection -> {
+              try (Statement savepoint = connection.createStatement();
+                  PreparedStatement insert =
+                      connection.prepareStatement(
+                          "INSERT INTO location_occupancy(location, activeWarehouses,"
+                              + " totalCapacity, totalStock) VALUES (?, 0, 0, 0)")) {
+                savepoint.execute("SAVEPOINT location_occupancy");
+                insert.setString(1, location);
+                try {
+                  insert.executeUpdate();
+                } catch (SQLException e) {
+                  // integrity constraint violations share the SQLSTATE class 23 on every database
+                  if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                    throw e;
+                  }
+                  savepoint.execute("ROLLBACK TO SAVEPOINT location_occupancy");
+                }
+                savepoint.execute("RELEASE SAVEPOINT location_occupancy");
+              }
+            });
+  }
+
+  public void add(DbWarehouse warehouse) {
+    apply(warehouse, 1);
+  }
+
+  public void subtract(DbWarehouse warehouse) {
+    apply(warehouse, -1);
+  }
+
+  private void apply(DbWarehouse warehouse, int sign) {
+    // archived warehouses never count towards the occupancy of their location
+    if (warehouse.location == null || warehouse.archivedAt != null) {
+      return;
+    }
+    DbLocationOccupancy occupancy = lock(warehouse.location);
+    occupancy.activeWarehouses += sign;
+    occupancy.totalCapacity += sign * (warehouse.capacity != null ? warehouse.capacity : 0);
+    occupancy.totalStock += sign * (warehouse.stock != null ? warehouse.stock : 0);
+  }
+}
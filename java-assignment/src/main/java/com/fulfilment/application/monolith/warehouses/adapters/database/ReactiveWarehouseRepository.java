@@ -0,0 +1,362 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.BusinessUnitCodeTakenException;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import io.smallrye.common.vertx.ContextLocals;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.pgclient.PgException;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.SqlClient;
+import io.vertx.mutiny.sqlclient.SqlConnection;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+
+// Reads and writes the same tables as WarehouseRepository through the reactive PostgreSQL client,
+// including the location_occupancy aggregate, so both adapters can serve the same database. Unlike
+// WarehouseRepository it only runs on PostgreSQL: the client and its statements, the ON CONFLICT
+// upserts of the occupancy included, are specific to it.
+@ApplicationScoped
+public class ReactiveWarehouseRepository implements ReactiveWarehouseStore {
+
+  private static final String CONNECTION =
+      ReactiveWarehouseRepository.class.getName() + ".connection";
+
+  private static final String WRITTEN_CODES =
+      ReactiveWarehouseRepository.class.getName() + ".written";
+
+  private static final String AFTER_COMMIT =
+      ReactiveWarehouseRepository.class.getName() + ".afterCommit";
+
+  private static final int STREAM_FETCH_SIZE = 500;
+
+  private static final String UNIQUE_VIOLATION = "23505";
+
+  private static final String COLUMNS =
+      "id, businessUnitCode, location, capacity, stock, createdAt, archivedAt";
+
+  @Inject PgPool pool;
+
+  @Inject WarehouseCache warehouseCache;
+
+  @Inject SessionFactory sessionFactory;
+
+  // Runs the work in a transaction. Every call of this repository made by the work, on the same
+  // request, joins it.
+  public <T> Uni<T> inTransaction(Supplier<Uni<T>> work) {
+    Set<String> written = new HashSet<>();
+    List<Runnable> afterCommit = new ArrayList<>();
+    return pool.withTransaction(
+            connection -> {
+              ContextLocals.put(CONNECTION, connection);
+              ContextLocals.put(WRITTEN_CODES, written);
+              ContextLocals.put(AFTER_COMMIT, afterCommit);
+              return work.get()
+                  .eventually(
+                      () -> {
+                        ContextLocals.remove(CONNECTION);
+                        ContextLocals.remove(WRITTEN_CODES);
+                        ContextLocals.remove(AFTER_COMMIT);
+                      });
+            })
+        // withTransaction only emits the item once the commit has succeeded
+        .invoke(() -> afterCommit.forEach(Runnable::run))
+        // evicted again once the transaction has ended, like WarehouseCache does for JTA
+        // transactions: a concurrent blocking reader may have loaded the previous state in between
+        .eventually(
+            () -> {
+              if (!written.isEmpty()) {
+                written.forEach(warehouseCache::invalidate);
+                evictFromSecondLevelCache();
+              }
+            });
+  }
+
+  @Override
+  public Uni<List<Warehouse>> findActive(
+      String location, String afterBusinessUnitCode, Integer limit) {
+    List<Object> parameters = new ArrayList<>();
+    StringBuilder query = activeQuery(location, afterBusinessUnitCode, parameters);
+    if (limit != null) {
+      parameters.add(limit);
+      query.append(" LIMIT $").append(parameters.size());
+    }
+    return client()
+        .preparedQuery(query.toString())
+        .execute(Tuple.from(parameters))
+        .map(ReactiveWarehouseRepository::toWarehouses);
+  }
+
+  @Override
+  public Multi<Warehouse> streamActive(String location) {
+    // a cursor only lives within a transaction, rows are fetched STREAM_FETCH_SIZE at a time as
+    // the subscriber requests them
+    List<Object> parameters = new ArrayList<>();
+    String query = activeQuery(location, null, parameters).toString();
+    return pool.getConnection()
+        .toMulti()
+        .flatMap(
+            connection ->
+                connection
+                    .begin()
+                    .toMulti()
+                    .flatMap(
+                        transaction ->
+                            connection
+                                .prepare(query)
+                                .toMulti()
+                                .flatMap(
+                                    statement ->
+                                        statement
+                                            .createStream(
+                                                STREAM_FETCH_SIZE, Tuple.from(parameters))
+                                            .toMulti())
+                                .onTermination()
+                                .call(transaction::commit))
+                    .onTermination()
+                    .call(connection::close))
+        .map(ReactiveWarehouseRepository::toWarehouse);
+  }
+
+  @Override
+  public Uni<Void> create(Warehouse warehouse) {
+    LocalDateTime createdAt = LocalDateTime.now();
+    return client()
+        .preparedQuery(
+            "INSERT INTO warehouse(" + COLUMNS + ", generation)"
+                + " VALUES (nextval('warehouse_seq'), $1, $2, $3, $4, $5, NULL, 1)")
+        .execute(
+            Tuple.of(
+                warehouse.businessUnitCode,
+                warehouse.location,
+                warehouse.capacity,
+                warehouse.stock,
+                createdAt))
+        .onFailure(e -> e instanceof PgException pg && UNIQUE_VIOLATION.equals(pg.getSqlState()))
+        .transform(e -> new BusinessUnitCodeTakenException(warehouse.businessUnitCode, e))
+        .chain(() -> appendGeneration(warehouse.businessUnitCode, createdAt))
+        .chain(() -> addOccupancy(warehouse, 1))
+        .invoke(() -> invalidate(warehouse.businessUnitCode));
+  }
+
+  @Override
+  public Uni<Void> update(Warehouse warehouse) {
+    // a no-op lock when the caller has locked the warehouse already, as the use cases do
+    return findByBusinessUnitCodeForUpdate(warehouse.businessUnitCode)
+        .chain(
+            existingWarehouse -> {
+              if (existingWarehouse == null) {
+                return Uni.createFrom().voidItem();
+              }
+              Warehouse updated = new Warehouse();
+              updated.businessUnitCode = existingWarehouse.businessUnitCode;
+              updated.location = warehouse.location;
+              updated.capacity = warehouse.capacity;
+              updated.stock = warehouse.stock;
+              updated.createdAt = existingWarehouse.createdAt;
+              updated.archivedAt =
+                  warehouse.archivedAt != null
+                      ? warehouse.archivedAt
+                      : existingWarehouse.archivedAt;
+              return addOccupancy(existingWarehouse, -1)
+                  .chain(
+                      () ->
+                          client()
+                              .preparedQuery(
+                                  "UPDATE warehouse SET location = $2, capacity = $3, stock = $4,"
+                                      + " archivedAt = $5, generation = generation + 1"
+                                      + " WHERE businessUnitCode = $1")
+                              .execute(
+                                  Tuple.of(
+                                      updated.businessUnitCode,
+                                      updated.location,
+                                      updated.capacity,
+                                      updated.stock,
+                                      updated.archivedAt)))
+                  .chain(
+                      () ->
+                          appendGeneration(
+                              updated.businessUnitCode,
+                              warehouse.archivedAt != null
+                                  ? warehouse.archivedAt
+                                  : LocalDateTime.now()))
+                  .chain(() -> addOccupancy(updated, 1));
+            })
+        .invoke(() -> invalidate(warehouse.businessUnitCode));
+  }
+
+  @Override
+  public Uni<Warehouse> findByBusinessUnitCode(String buCode) {
+    return client()
+        .preparedQuery("SELECT " + COLUMNS + " FROM warehouse WHERE businessUnitCode = $1")
+        .execute(Tuple.of(buCode))
+        .map(ReactiveWarehouseRepository::firstWarehouse);
+  }
+
+  @Override
+  public Uni<Warehouse> findByBusinessUnitCodeForUpdate(String buCode) {
+    return client()
+        .preparedQuery(
+            "SELECT " + COLUMNS + " FROM warehouse WHERE businessUnitCode = $1 FOR UPDATE")
+        .execute(Tuple.of(buCode))
+        .map(ReactiveWarehouseRepository::firstWarehouse);
+  }
+
+  public Uni<Warehouse> findById(Long id) {
+    return client()
+        .preparedQuery("SELECT " + COLUMNS + " FROM warehouse WHERE id = $1")
+        .execute(Tuple.of(id))
+        .map(ReactiveWarehouseRepository::firstWarehouse);
+  }
+
+  @Override
+  public Uni<LocationOccupancy> lockOccupancyByLocation(String location) {
+    return selectOccupancyForUpdate(location)
+        .chain(
+            occupancy -> {
+              if (occupancy != null) {
+                return Uni.createFrom().item(occupancy);
+              }
+              // first warehouse at this location: concurrent writers race to create the row, the
+              // losers simply lock the row created by the winner
+              return client()
+                  .preparedQuery(
+                      "INSERT INTO location_occupancy(location, activeWarehouses, totalCapacity,"
+                          + " totalStock) VALUES ($1, 0, 0, 0) ON CONFLICT (location) DO NOTHING")
+                  .execute(Tuple.of(location))
+                  .chain(() -> selectOccupancyForUpdate(location));
+            });
+  }
+
+  @Override
+  public void afterCommit(Runnable action) {
+    ContextLocals.<List<Runnable>>get(AFTER_COMMIT)
+        .ifPresentOrElse(afterCommit -> afterCommit.add(action), action);
+  }
+
+  private Uni<LocationOccupancy> selectOccupancyForUpdate(String location) {
+    return client()
+        .preparedQuery(
+            "SELECT location, activeWarehouses, totalCapacity, totalStock FROM location_occupancy"
+                + " WHERE location = $1 FOR UPDATE")
+        .execute(Tuple.of(location))
+        .map(
+            rows -> {
+              if (rows.size() == 0) {
+                return null;
+              }
+              Row row = rows.iterator().next();
+              return new LocationOccupancy(
+                  row.getString(0), row.getInteger(1), row.getInteger(2), row.getInteger(3));
+            });
+  }
+
+  // copies the current state of the warehouse to its history, see DbWarehouseGeneration
+  private Uni<Void> appendGeneration(String buCode, LocalDateTime validFrom) {
+    return client()
+        .preparedQuery(
+            "INSERT INTO warehouse_generation(businessUnitCode, generation, validFrom, location,"
+                + " capacity, stock, createdAt, archivedAt)"
+                + " SELECT businessUnitCode, generation, $2, location, capacity, stock, createdAt,"
+                + " archivedAt FROM warehouse WHERE businessUnitCode = $1")
+        .execute(Tuple.of(buCode, validFrom))
+        .replaceWithVoid();
+  }
+
+  // Applies the warehouse to the occupancy of its location in a single upsert, the counterpart of
+  // LocationOccupancyRepository.add and subtract
+  private Uni<Void> addOccupancy(Warehouse warehouse, int sign) {
+    // archived warehouses never count towards the occupancy of their location
+    if (warehouse.location == null || warehouse.archivedAt != null) {
+      return Uni.createFrom().voidItem();
+    }
+    return client()
+        .preparedQuery(
+            "INSERT INTO location_occupancy(location, activeWarehouses, totalCapacity, totalStock)"
+                + " VALUES ($1, $2, $3, $4) ON CONFLICT (location) DO UPDATE SET activeWarehouses"
+                + " = location_occupancy.activeWarehouses + EXCLUDED.activeWarehouses,"
+                + " totalCapacity = location_occupancy.totalCapacity + EXCLUDED.totalCapacity,"
+                + " totalStock = location_occupancy.totalStock + EXCLUDED.totalStock")
+        .execute(
+            Tuple.of(
+                warehouse.location,
+                sign,
+                sign * (warehouse.capacity != null ? warehouse.capacity : 0),
+                sign * (warehouse.stock != null ? warehouse.stock : 0)))
+        .replaceWithVoid();
+  }
+
+  // WarehouseRepository keeps warehouses in the WarehouseCache, which must not serve the state
+  // changed here
+  private void invalidate(String businessUnitCode) {
+    warehouseCache.invalidate(businessUnitCode);
+    evictFromSecondLevelCache();
+    ContextLocals.<Set<String>>get(WRITTEN_CODES)
+        .ifPresent(written -> written.add(businessUnitCode));
+  }
+
+  // Hibernate only invalidates its caches for the writes it makes itself. The ids of the written
+  // rows are not known here, so the warehouse regions are dropped as a whole.
+  private void evictFromSecondLevelCache() {
+    Cache cache = sessionFactory.getCache();
+    cache.evictEntityData(DbWarehouse.class);
+    cache.evictNaturalIdData(DbWarehouse.class);
+    cache.evictQueryRegion(DbWarehouse.ACTIVE_QUERY_REGION);
+  }
+
+  // the connection of the transaction in progress, if any
+  private SqlClient client() {
+    return ContextLocals.<SqlConnection>get(CONNECTION).map(SqlClient.class::cast).orElse(pool);
+  }
+
+  private static StringBuilder activeQuery(
+      String location, String afterBusinessUnitCode, List<Object> parameters) {
+    StringBuilder query =
+        new StringBuilder("SELECT " + COLUMNS + " FROM warehouse WHERE archivedAt IS NULL");
+    if (location != null) {
+      parameters.add(location);
+      query.append(" AND location = $").append(parameters.size());
+    }
+    if (afterBusinessUnitCode != null) {
+      parameters.add(afterBusinessUnitCode);
+      query.append(" AND businessUnitCode > $").append(parameters.size());
+    }
+    return query.append(" ORDER BY businessUnitCode");
+  }
+
+  private static List<Warehouse> toWarehouses(RowSet<Row> rows) {
+    List<Warehouse> warehouses = new ArrayList<>(rows.size());
+    for (Row row : rows) {
+      warehouses.add(toWarehouse(row));
+    }
+    return warehouses;
+  }
+
+  private static Warehouse firstWarehouse(RowSet<Row> rows) {
+    return rows.size() > 0 ? toWarehouse(rows.iterator().next()) : null;
+  }
+
+  private static Warehouse toWarehouse(Row row) {
+    var warehouse = new Warehouse();
+    warehouse.businessUnitCode = row.getString(1);
+    warehouse.location = row.getString(2);
+    warehouse.capacity = row.getInteger(3);
+    warehouse.stock = row.getInteger(4);
+    warehouse.createdAt = row.getLocalDateTime(5);
+    warehouse.archivedAt = row.getLocalDateTime(6);
+    return warehouse;
+  }
+}
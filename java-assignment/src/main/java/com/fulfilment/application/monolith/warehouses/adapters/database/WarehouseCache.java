@@ -0,0 +1,134 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+// Near-cache of warehouses by business unit code. Only warehouses that exist are cached, and
+// callers always get their own copy.
+@ApplicationScoped
+public class WarehouseCache {
+
+  private static final String WRITTEN_CODES = WarehouseCache.class.getName() + ".written";
+
+  private final Cache<String, Warehouse> warehouses;
+
+  // bumped by every invalidation, so that a miss loaded meanwhile is not cached
+  private final AtomicLong invalidations = new AtomicLong();
+
+  private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+  @Inject
+  public WarehouseCache(
+      @ConfigProperty(name = "warehouse.cache.maximum-size", defaultValue = "10000")
+          long maximumSize,
+      @ConfigProperty(name = "warehouse.cache.expire-after-write", defaultValue = "5m")
+          Duration expireAfterWrite,
+      TransactionSynchronizationRegistry transactionSynchronizationRegistry,
+      MeterRegistry meterRegistry) {
+    this.warehouses =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+    this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+    CaffeineCacheMetrics.monitor(meterRegistry, warehouses, "warehouse-by-business-unit-code");
+  }
+
+  public Warehouse get(String businessUnitCode, Function<String, Warehouse> loader) {
+    if (businessUnitCode == null) {
+      return null;
+    }
+    if (writtenInCurrentTransaction(businessUnitCode)) {
+      // uncommitted state must not be visible to other transactions
+      return loader.apply(businessUnitCode);
+    }
+    Warehouse cached = warehouses.getIfPresent(businessUnitCode);
+    if (cached != null) {
+      return copy(cached);
+    }
+    // Loaded outside of the cache: Cache.get runs the loader under a lock of the underlying map,
+    // so a loader waiting for a connection held up every caller hashed to the same bin, along with
+    // the connections and location locks those callers held, until the pool timed out
+    long invalidationsBefore = invalidations.get();
+    Warehouse loaded = loader.apply(businessUnitCode);
+    if (loaded != null) {
+      Warehouse copy = copy(loaded);
+      warehouses
+          .asMap()
+          .compute(
+              businessUnitCode,
+              (code, current) -> invalidations.get() == invalidationsBefore ? copy : current);
+    }
+    return copy(loaded);
+  }
+
+  // Drops the entry right away, and again once the transaction has ended: a concurrent reader
+  // may have loaded the previous committed state in between.
+  public void invalidate(String businessUnitCode) {
+    invalidations.incrementAndGet();
+    warehouses.invalidate(businessUnitCode);
+    if (transactionSynchronizationRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+      return;
+    }
+    Set<String> written = writtenCodes();
+    if (written == null) {
+      Set<String> codes = new HashSet<>();
+      transactionSynchronizationRegistry.putResource(WRITTEN_CODES, codes);
+      transactionSynchronizationRegistry.registerInterposedSynchronization(
+          new Synchronization() {
+            @Override
+            public void beforeCompletion() {}
+
+            @Override
+            public void afterCompletion(int status) {
+              invalidations.incrementAndGet();
+              warehouses.invalidateAll(codes);
+            }
+          });
+      written = codes;
+    }
+    written.add(businessUnitCode);
+  }
+
+  private boolean writtenInCurrentTransaction(String businessUnitCode) {
+    if (transactionSynchronizationRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+      return false;
+    }
+    Set<String> written = writtenCodes();
+    return written != null && written.contains(businessUnitCode);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Set<String> writtenCodes() {
+    return (Set<String>) transactionSynchronizationRegistry.getResource(WRITTEN_CODES);
+  }
+
+  private static Warehouse copy(Warehouse warehouse) {
+    if (warehouse == null) {
+      return null;
+    }
+    Warehouse copy = new Warehouse();
+    copy.businessUnitCode = warehouse.businessUnitCode;
+    copy.location = warehouse.location;
+    copy.capacity = warehouse.capacity;
+    copy.stock = warehouse.stock;
+    copy.createdAt = warehouse.createdAt;
+    copy.archivedAt = warehouse.archivedAt;
+    return copy;
+  }
+}
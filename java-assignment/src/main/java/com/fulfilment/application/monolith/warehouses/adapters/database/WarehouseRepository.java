@@ -1,71 +1,374 @@
 package com.fulfilment.application.monolith.warehouses.adapters.database;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.BusinessUnitCodeTakenException;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseGeneration;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceException;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.SelectionQuery;
 
+// replaced by InMemoryWarehouseStore when warehouse.store.kind=in-memory
 @ApplicationScoped
+@UnlessBuildProperty(
+    name = "warehouse.store.kind",
+    stringValue = "in-memory",
+    enableIfMissing = true)
 public class WarehouseRepository implements WarehouseStore, PanacheRepository<DbWarehouse> {
 
+  private static final int STREAM_FETCH_SIZE = 500;
+
+  private static final String LOADED = WarehouseRepository.class.getName() + ".loaded";
+
+  @Inject LocationOccupancyRepository locationOccupancyRepository;
+
+  @Inject SessionFactory sessionFactory;
+
+  @Inject WarehouseCache warehouseCache;
+
+  @Inject TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
   @Override
   public List<Warehouse> getAll() {
     // Return only active (non-archived) warehouses
-    return this.find("archivedAt is null").stream().map(DbWarehouse::toWarehouse).toList();
+    List<WarehouseRow> warehouses = active(this.find("archivedAt is null")).list();
+    return warehouses.stream().map(WarehouseRow::toWarehouse).toList();
+  }
+
+  @Override
+  public List<Warehouse> findActive(String location, String afterBusinessUnitCode, Integer limit) {
+    Parameters parameters = new Parameters();
+    String query = activeQuery(location, afterBusinessUnitCode, parameters);
+    PanacheQuery<WarehouseRow> page =
+        active(this.find(query, Sort.by("businessUnitCode"), parameters));
+    if (limit != null) {
+      page.range(0, limit - 1);
+    }
+    // list() rather than stream(): Hibernate only serves scrolled results from the database
+    return page.list().stream().map(WarehouseRow::toWarehouse).toList();
+  }
+
+  @Override
+  public void streamActive(String location, Consumer<Warehouse> consumer) {
+    // a stateless session keeps nothing between rows, and the transaction lets the PostgreSQL
+    // driver read the rows through a cursor instead of loading the whole result at once
+    QuarkusTransaction.requiringNew()
+        .run(
+            () -> {
+              Parameters parameters = new Parameters();
+              String query =
+                  "from DbWarehouse where "
+                      + activeQuery(location, null, parameters)
+                      + " order by businessUnitCode";
+              try (StatelessSession session = sessionFactory.openStatelessSession()) {
+                SelectionQuery<DbWarehouse> selection =
+                    session.createSelectionQuery(query, DbWarehouse.class);
+                parameters.map().forEach(selection::setParameter);
+                try (ScrollableResults<DbWarehouse> rows =
+                    selection.setFetchSize(STREAM_FETCH_SIZE).scroll(ScrollMode.FORWARD_ONLY)) {
+                  while (rows.next()) {
+                    consumer.accept(rows.get().toWarehouse());
+                  }
+                }
+              }
+            });
   }
 
   @Override
   public void create(Warehouse warehouse) {
-    DbWarehouse dbWarehouse = new DbWarehouse();
-    dbWarehouse.businessUnitCode = warehouse.businessUnitCode;
-    dbWarehouse.location = warehouse.location;
-    dbWarehouse.capacity = warehouse.capacity;
-    dbWarehouse.stock = warehouse.stock;
-    dbWarehouse.createdAt = LocalDateTime.now();
-    dbWarehouse.archivedAt = null;
+    DbWarehouse dbWarehouse = toDbWarehouse(warehouse, LocalDateTime.now());
     this.persist(dbWarehouse);
+    getEntityManager().persist(new DbWarehouseGeneration(dbWarehouse, dbWarehouse.createdAt));
+    // inserted now rather than at commit, so that a business unit code taken by a concurrent
+    // creation is told apart from a failure of the commit
+    try {
+      getEntityManager().flush();
+    } catch (PersistenceException e) {
+      if (isConstraintViolation(e)) {
+        throw new BusinessUnitCodeTakenException(dbWarehouse.businessUnitCode, e);
+      }
+      throw e;
+    }
+    locationOccupancyRepository.add(dbWarehouse);
+    warehouseCache.invalidate(dbWarehouse.businessUnitCode);
+  }
+
+  @Override
+  public void createAll(List<Warehouse> warehouses) {
+    // the inserts are only queued here and sent as JDBC batches when the session is flushed
+    LocalDateTime now = LocalDateTime.now();
+    for (Warehouse warehouse : warehouses) {
+      DbWarehouse dbWarehouse = toDbWarehouse(warehouse, now);
+      this.persist(dbWarehouse);
+      getEntityManager().persist(new DbWarehouseGeneration(dbWarehouse, now));
+      locationOccupancyRepository.add(dbWarehouse);
+      warehouseCache.invalidate(dbWarehouse.businessUnitCode);
+    }
   }
 
   @Override
   public void update(Warehouse warehouse) {
-    DbWarehouse dbWarehouse =
-        this.find("businessUnitCode", warehouse.businessUnitCode).firstResult();
+    DbWarehouse dbWarehouse = loadedOrFind(warehouse.businessUnitCode);
     if (dbWarehouse != null) {
+      locationOccupancyRepository.subtract(dbWarehouse);
       dbWarehouse.location = warehouse.location;
       dbWarehouse.capacity = warehouse.capacity;
       dbWarehouse.stock = warehouse.stock;
       if (warehouse.archivedAt != null) {
         dbWarehouse.archivedAt = warehouse.archivedAt;
       }
+      dbWarehouse.generation++;
       this.persist(dbWarehouse);
+      // the previous generation stays as it was, this one takes over from now on
+      getEntityManager()
+          .persist(
+              new DbWarehouseGeneration(
+                  dbWarehouse,
+                  warehouse.archivedAt != null ? warehouse.archivedAt : LocalDateTime.now()));
+      locationOccupancyRepository.add(dbWarehouse);
+      warehouseCache.invalidate(dbWarehouse.businessUnitCode);
     }
   }
 
   @Override
   public void remove(Warehouse warehouse) {
-    DbWarehouse dbWarehouse =
-        this.find("businessUnitCode", warehouse.businessUnitCode).firstResult();
+    DbWarehouse dbWarehouse = loadedOrFind(warehouse.businessUnitCode);
     if (dbWarehouse != null) {
+      locationOccupancyRepository.subtract(dbWarehouse);
       this.delete(dbWarehouse);
+      // a removed warehouse leaves no history behind
+      getEntityManager()
+          .createQuery("delete from DbWarehouseGeneration where businessUnitCode = ?1")
+          .setParameter(1, dbWarehouse.businessUnitCode)
+          .executeUpdate();
+      warehouseCache.invalidate(dbWarehouse.businessUnitCode);
     }
   }
 
   @Override
   public Warehouse findByBusinessUnitCode(String buCode) {
-    DbWarehouse dbWarehouse = this.find("businessUnitCode", buCode).firstResult();
+    return warehouseCache.get(buCode, this::loadByBusinessUnitCode);
+  }
+
+  @Override
+  public Warehouse findWarehouseById(Long id) {
+    DbWarehouse dbWarehouse = this.findById(id);
     return dbWarehouse != null ? dbWarehouse.toWarehouse() : null;
   }
 
+  @Override
+  public Warehouse findByBusinessUnitCodeForUpdate(String buCode) {
+    if (buCode == null) {
+      return null;
+    }
+    Map<String, DbWarehouse> loaded = loadedWarehouses();
+    DbWarehouse dbWarehouse = loaded.get(buCode);
+    if (dbWarehouse == null) {
+      // straight from the database: the caches may lag behind the locked row
+      dbWarehouse =
+          this.find("businessUnitCode", buCode)
+              .withLock(LockModeType.PESSIMISTIC_WRITE)
+              .firstResult();
+      if (dbWarehouse == null) {
+        return null;
+      }
+      loaded.put(buCode, dbWarehouse);
+    }
+    return dbWarehouse.toWarehouse();
+  }
+
+  @Override
+  public Warehouse findWarehouseByIdForUpdate(Long id) {
+    DbWarehouse dbWarehouse = this.findById(id, LockModeType.PESSIMISTIC_WRITE);
+    if (dbWarehouse == null) {
+      return null;
+    }
+    loadedWarehouses().putIfAbsent(dbWarehouse.businessUnitCode, dbWarehouse);
+    return dbWarehouse.toWarehouse();
+  }
+
+  @Override
+  public Set<String> findExistingBusinessUnitCodes(Collection<String> buCodes) {
+    if (buCodes.isEmpty()) {
+      return Set.of();
+    }
+    return new HashSet<>(
+        getEntityManager()
+            .createQuery(
+                "select w.businessUnitCode from DbWarehouse w where w.businessUnitCode in ?1",
+                String.class)
+            .setParameter(1, buCodes)
+            .getResultList());
+  }
+
+  @Override
+  public LocationOccupancy findOccupancyByLocation(String location) {
+    return locationOccupancyRepository.findByLocation(location);
+  }
+
+  @Override
+  public LocationOccupancy lockOccupancyByLocation(String location) {
+    return locationOccupancyRepository.lock(location).toLocationOccupancy();
+  }
+
+  @Override
+  public List<WarehouseGeneration> findGenerations(String buCode) {
+    return getEntityManager()
+        .createQuery(
+            "from DbWarehouseGeneration where businessUnitCode = ?1 order by generation",
+            DbWarehouseGeneration.class)
+        .setParameter(1, buCode)
+        .getResultStream()
+        .map(DbWarehouseGeneration::toWarehouseGeneration)
+        .toList();
+  }
+
+  @Override
+  public List<WarehouseGeneration> findActiveAsOf(LocalDateTime asOf, String buCode) {
+    // one descent of the as-of index per warehouse created by then, for the latest generation
+    // that started at or before the given time: the cost depends on the number of warehouses,
+    // not on the length of their history
+    String sql =
+        "SELECT g.* FROM warehouse w"
+            + " CROSS JOIN LATERAL (SELECT * FROM warehouse_generation h"
+            + " WHERE h.businessUnitCode = w.businessUnitCode AND h.validFrom <= :asOf"
+            + " ORDER BY h.validFrom DESC, h.generation DESC LIMIT 1) g"
+            + " WHERE w.createdAt <= :asOf AND g.archivedAt IS NULL"
+            + (buCode != null ? " AND w.businessUnitCode = :businessUnitCode" : "")
+            + " ORDER BY w.businessUnitCode";
+    var query =
+        getEntityManager()
+            .createNativeQuery(sql, DbWarehouseGeneration.class)
+            .setParameter("asOf", asOf);
+    if (buCode != null) {
+      query.setParameter("businessUnitCode", buCode);
+    }
+    @SuppressWarnings("unchecked")
+    List<DbWarehouseGeneration> generations = query.getResultList();
+    return generations.stream().map(DbWarehouseGeneration::toWarehouseGeneration).toList();
+  }
+
   public List<Warehouse> findByLocation(String location) {
     return this.find("location", location).stream().map(DbWarehouse::toWarehouse).toList();
   }
 
+  @Override
   public List<Warehouse> findActiveByLocation(String location) {
-    return this.find("location = ?1 and archivedAt is null", location)
+    return active(
+            this.find(
+                "location = ?1 and archivedAt is null", Sort.by("businessUnitCode"), location))
+        .list()
         .stream()
-        .map(DbWarehouse::toWarehouse)
+        .map(WarehouseRow::toWarehouse)
         .toList();
   }
+
+  private Warehouse loadByBusinessUnitCode(String buCode) {
+    DbWarehouse dbWarehouse = findByNaturalId(buCode);
+    return dbWarehouse != null ? dbWarehouse.toWarehouse() : null;
+  }
+
+  // the warehouse loaded for update in the current transaction, if any
+  private DbWarehouse loadedOrFind(String buCode) {
+    DbWarehouse dbWarehouse = loadedWarehouses().get(buCode);
+    return dbWarehouse != null ? dbWarehouse : findByNaturalId(buCode);
+  }
+
+  // Warehouses loaded for update by business unit code, the unit of work of the current
+  // transaction. The entities stay managed by the session of the transaction until it ends.
+  @SuppressWarnings("unchecked")
+  private Map<String, DbWarehouse> loadedWarehouses() {
+    Map<String, DbWarehouse> loaded =
+        (Map<String, DbWarehouse>) transactionSynchronizationRegistry.getResource(LOADED);
+    if (loaded == null) {
+      loaded = new HashMap<>();
+      transactionSynchronizationRegistry.putResource(LOADED, loaded);
+    }
+    return loaded;
+  }
+
+  // resolved to the id through the natural id cache, and then to the entity through the entity
+  // cache, without a query when both are warm
+  private DbWarehouse findByNaturalId(String buCode) {
+    if (buCode == null) {
+      return null;
+    }
+    return getEntityManager()
+        .unwrap(Session.class)
+        .bySimpleNaturalId(DbWarehouse.class)
+        .load(buCode);
+  }
+
+  // Only the columns of the active warehouses, projected into rows the session does not keep
+  // track of. No manual flush mode here: the listings also run within the write transactions,
+  // whose pending changes they must see.
+  private static PanacheQuery<WarehouseRow> active(PanacheQuery<DbWarehouse> query) {
+    return query
+        .project(WarehouseRow.class)
+        .withHint(HibernateHints.HINT_CACHEABLE, true)
+        .withHint(HibernateHints.HINT_CACHE_REGION, DbWarehouse.ACTIVE_QUERY_REGION);
+  }
+
+  // whether the database refused the statement for a unique key, however the exception is wrapped
+  private static boolean isConstraintViolation(Throwable failure) {
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      // unique_violation in PostgreSQL
+      if (cause instanceof ConstraintViolationException violation
+          && "23505".equals(violation.getSQLState())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static DbWarehouse toDbWarehouse(Warehouse warehouse, LocalDateTime createdAt) {
+    DbWarehouse dbWarehouse = new DbWarehouse();
+    dbWarehouse.businessUnitCode = warehouse.businessUnitCode;
+    dbWarehouse.location = warehouse.location;
+    dbWarehouse.capacity = warehouse.capacity;
+    dbWarehouse.stock = warehouse.stock;
+    dbWarehouse.createdAt = createdAt;
+    dbWarehouse.archivedAt = null;
+    dbWarehouse.generation = 1;
+    return dbWarehouse;
+  }
+
+  private static String activeQuery(
+      String location, String afterBusinessUnitCode, Parameters parameters) {
+    StringBuilder query = new StringBuilder("archivedAt is null");
+    if (location != null) {
+      query.append(" and location = :location");
+      parameters.and("location", location);
+    }
+    if (afterBusinessUnitCode != null) {
+      query.append(" and businessUnitCode > :after");
+      parameters.and("after", afterBusinessUnitCode);
+    }
+    return query.toString();
+  }
 }
@@ -0,0 +1,24 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.time.LocalDateTime;
+
+// The columns of an active warehouse listed by WarehouseRepository, read without loading the
+// entity: the rows are neither managed by the session nor checked for changes on flush
+public record WarehouseRow(
+    String businessUnitCode,
+    String location,
+    Integer capacity,
+    Integer stock,
+    LocalDateTime createdAt) {
+
+  public Warehouse toWarehouse() {
+    var warehouse = new Warehouse();
+    warehouse.businessUnitCode = businessUnitCode;
+    warehouse.location = location;
+    warehouse.capacity = capacity;
+    warehouse.stock = stock;
+    warehouse.createdAt = createdAt;
+    return warehouse;
+  }
+}
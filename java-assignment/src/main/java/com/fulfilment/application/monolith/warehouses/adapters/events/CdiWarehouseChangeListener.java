@@ -0,0 +1,22 @@
+package com.fulfilment.application.monolith.warehouses.adapters.events;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseChangeListener;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+
+// Fires the changes as CDI events. Observers declared with
+// @Observes(during = TransactionPhase.AFTER_SUCCESS) are called once the transaction of the change
+// has been committed. The reactive adapter has no JTA transaction: the reactive use cases only
+// report their changes once ReactiveWarehouseStore has committed them.
+@ApplicationScoped
+public class CdiWarehouseChangeListener implements WarehouseChangeListener {
+
+  @Inject Event<WarehouseChange> events;
+
+  @Override
+  public void changed(WarehouseChange change) {
+    events.fire(change);
+  }
+}
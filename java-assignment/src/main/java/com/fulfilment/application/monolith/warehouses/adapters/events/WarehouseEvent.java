@@ -0,0 +1,9 @@
+package com.fulfilment.application.monolith.warehouses.adapters.events;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import java.time.Instant;
+
+// A committed warehouse change, numbered by its position in the WarehouseEventLog
+public record WarehouseEvent(
+    long offset, WarehouseChange.Type type, Warehouse warehouse, Instant occurredAt) {}
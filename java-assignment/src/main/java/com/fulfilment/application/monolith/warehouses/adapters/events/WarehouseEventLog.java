@@ -0,0 +1,221 @@
+package com.fulfilment.application.monolith.warehouses.adapters.events;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.BackPressureFailure;
+import io.smallrye.mutiny.subscription.BackPressureStrategy;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+// Bounded in-process log of the committed warehouse changes, numbered from 1, streamed to the
+// subscribers of GET /warehouse/events. Once the log is full the oldest events are dropped: a
+// subscriber resuming from a dropped offset has to reload the warehouses. Offsets start over when
+// the application restarts.
+//
+// Every subscriber gets its own bounded buffer. A subscriber lagging more than the buffer behind,
+// replayed events included, is evicted rather than slowing down the writers or growing the heap.
+// The events are handed to the subscribers on a single delivery thread, so that the writers only
+// append to the log: the mapping and the writes of the streams never run on a committing request.
+@ApplicationScoped
+public class WarehouseEventLog {
+
+  private final WarehouseEvent[] events;
+
+  private final int subscriberBuffer;
+
+  // guards the events, the offset and the subscribers; deliveries are submitted in offset order
+  // while it is held
+  private final ReentrantLock lock = new ReentrantLock();
+
+  // runs the deliveries one after the other, in the order they were submitted
+  private final Executor delivery;
+
+  private final List<MultiEmitter<? super WarehouseEvent>> subscribers = new ArrayList<>();
+
+  private long lastOffset;
+
+  private final Counter evictions;
+
+  @Inject
+  public WarehouseEventLog(
+      @ConfigProperty(name = "warehouse.events.capacity", defaultValue = "1024") int capacity,
+      @ConfigProperty(name = "warehouse.events.subscriber-buffer", defaultValue = "1024")
+          int subscriberBuffer,
+      MeterRegistry meterRegistry) {
+    this(
+        capacity,
+        subscriberBuffer,
+        meterRegistry,
+        Executors.newSingleThreadExecutor(
+            task -> {
+              Thread thread = new Thread(task, "warehouse-events");
+              thread.setDaemon(true);
+              return thread;
+            }));
+  }
+
+  // the delivery executor must run its tasks one at a time, in submission order
+  WarehouseEventLog(
+      int capacity, int subscriberBuffer, MeterRegistry meterRegistry, Executor delivery) {
+    this.events = new WarehouseEvent[capacity];
+    this.delivery = delivery;
+    this.subscriberBuffer = subscriberBuffer;
+    this.evictions =
+        Counter.builder("warehouse.events.evictions")
+            .description("Subscribers of the warehouse change feed dropped for lagging behind")
+            .register(meterRegistry);
+    Gauge.builder("warehouse.events.subscribers", this, WarehouseEventLog::subscriberCount)
+        .description("Subscribers of the warehouse change feed")
+        .register(meterRegistry);
+  }
+
+  @PreDestroy
+  void stopDelivery() {
+    if (delivery instanceof ExecutorService executor) {
+      executor.shutdown();
+    }
+  }
+
+  void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseChange change) {
+    append(change);
+  }
+
+  WarehouseEvent append(WarehouseChange change) {
+    lock.lock();
+    try {
+      WarehouseEvent event =
+          new WarehouseEvent(
+              lastOffset + 1, change.type(), copy(change.warehouse()), Instant.now());
+      lastOffset = event.offset();
+      events[slot(event.offset())] = event;
+      if (!subscribers.isEmpty()) {
+        List<MultiEmitter<? super WarehouseEvent>> recipients = List.copyOf(subscribers);
+        delivery.execute(() -> deliver(recipients, List.of(event)));
+      }
+      return event;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // whether every event after the offset is still in the log
+  public boolean retains(long afterOffset) {
+    lock.lock();
+    try {
+      return retained(afterOffset);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // The events after the given offset followed by the live ones, or only the live ones when no
+  // offset is given. Fails with StaleOffsetException when the events after the offset are no
+  // longer retained, and with BackPressureFailure when the subscriber is evicted.
+  public Multi<WarehouseEvent> subscribe(Long afterOffset) {
+    return Multi.createFrom()
+        .<WarehouseEvent>emitter(
+            emitter -> register(emitter, afterOffset), BackPressureStrategy.ERROR)
+        .onOverflow()
+        .buffer(subscriberBuffer)
+        .onFailure(BackPressureFailure.class)
+        .invoke(() -> evictions.increment());
+  }
+
+  private void register(MultiEmitter<? super WarehouseEvent> emitter, Long afterOffset) {
+    lock.lock();
+    try {
+      if (afterOffset != null && !retained(afterOffset)) {
+        emitter.fail(new StaleOffsetException(afterOffset));
+        return;
+      }
+      emitter.onTermination(() -> unregister(emitter));
+      // the replay is submitted before any live event the subscriber gets
+      if (afterOffset != null && afterOffset < lastOffset) {
+        List<WarehouseEvent> replayed = new ArrayList<>((int) (lastOffset - afterOffset));
+        for (long offset = afterOffset + 1; offset <= lastOffset; offset++) {
+          replayed.add(events[slot(offset)]);
+        }
+        delivery.execute(() -> deliver(List.of(emitter), replayed));
+      }
+      subscribers.add(emitter);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Runs on the delivery thread. Emitting only fills the buffer of a subscriber that is not ready,
+  // and fails it when full.
+  private static void deliver(
+      List<MultiEmitter<? super WarehouseEvent>> recipients, List<WarehouseEvent> delivered) {
+    for (MultiEmitter<? super WarehouseEvent> recipient : recipients) {
+      for (WarehouseEvent event : delivered) {
+        // evicted, or gone
+        if (recipient.isCancelled()) {
+          break;
+        }
+        recipient.emit(event);
+      }
+    }
+  }
+
+  private void unregister(MultiEmitter<? super WarehouseEvent> emitter) {
+    lock.lock();
+    try {
+      subscribers.remove(emitter);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int subscriberCount() {
+    lock.lock();
+    try {
+      return subscribers.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean retained(long afterOffset) {
+    long firstRetainedOffset = Math.max(1, lastOffset - events.length + 1);
+    return afterOffset >= firstRetainedOffset - 1 && afterOffset <= lastOffset;
+  }
+
+  private int slot(long offset) {
+    return (int) (offset % events.length);
+  }
+
+  // the change may be written to again by its caller
+  private static Warehouse copy(Warehouse warehouse) {
+    Warehouse copy = new Warehouse();
+    copy.businessUnitCode = warehouse.businessUnitCode;
+    copy.location = warehouse.location;
+    copy.capacity = warehouse.capacity;
+    copy.stock = warehouse.stock;
+    copy.createdAt = warehouse.createdAt;
+    copy.archivedAt = warehouse.archivedAt;
+    return copy;
+  }
+
+  public static class StaleOffsetException extends RuntimeException {
+    public StaleOffsetException(long afterOffset) {
+      super("Events after offset " + afterOffset + " are no longer retained.");
+    }
+  }
+}
@@ -0,0 +1,552 @@
+package com.fulfilment.application.monolith.warehouses.adapters.memory;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.BusinessUnitCodeTakenException;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseGeneration;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+// WarehouseStore kept in memory, for load tests of the REST and domain layers and for sites that
+// run without a database. Reads never block. Writes are serialized per warehouse and per location,
+// like the row locks of WarehouseRepository: the ForUpdate lookups hold the lock of the warehouse,
+// and lockOccupancyByLocation the lock of the location, until the current transaction ends.
+// Changes are applied right away and are not rolled back with the transaction, the use cases only
+// write once every check passed.
+@ApplicationScoped
+@IfBuildProperty(name = "warehouse.store.kind", stringValue = "in-memory")
+public class InMemoryWarehouseStore implements WarehouseStore {
+
+  private static final Logger LOGGER = Logger.getLogger(InMemoryWarehouseStore.class.getName());
+
+  private static final String HELD_LOCATIONS = InMemoryWarehouseStore.class.getName() + ".held";
+
+  private static final String HELD_WAREHOUSES =
+      InMemoryWarehouseStore.class.getName() + ".heldWarehouses";
+
+  private final ConcurrentHashMap<String, StoredWarehouse> warehouses = new ConcurrentHashMap<>();
+
+  private final ConcurrentHashMap<Long, String> businessUnitCodesById = new ConcurrentHashMap<>();
+
+  // secondary indexes of the active warehouses, sorted for keyset pagination
+  private final ConcurrentSkipListSet<String> activeCodes = new ConcurrentSkipListSet<>();
+
+  private final ConcurrentHashMap<String, ConcurrentSkipListSet<String>> activeCodesByLocation =
+      new ConcurrentHashMap<>();
+
+  // the generations of each warehouse, oldest first, replaced as a whole under the lock of the
+  // location of the warehouse
+  private final ConcurrentSkipListMap<String, List<WarehouseGeneration>> generations =
+      new ConcurrentSkipListMap<>();
+
+  // only changed while holding the lock of the location
+  private final ConcurrentHashMap<String, LocationOccupancy> occupancies =
+      new ConcurrentHashMap<>();
+
+  // one lock per location; semaphores, as the transaction may end on another thread than it began
+  private final ConcurrentHashMap<String, Semaphore> locationLocks = new ConcurrentHashMap<>();
+
+  // one lock per business unit code, always taken before the locks of the locations
+  private final ConcurrentHashMap<String, Semaphore> warehouseLocks = new ConcurrentHashMap<>();
+
+  private final AtomicLong ids = new AtomicLong();
+
+  private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+  // classpath resource with the warehouses to start with
+  @ConfigProperty(name = "warehouse.store.in-memory.seed")
+  Optional<String> seed;
+
+  // standalone store, without transactions: a write only locks its location while it runs
+  public InMemoryWarehouseStore() {
+    this(null);
+  }
+
+  @Inject
+  public InMemoryWarehouseStore(
+      TransactionSynchronizationRegistry transactionSynchronizationRegistry) {
+    this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+  }
+
+  @PostConstruct
+  void loadSeed() {
+    if (seed != null && seed.isPresent()) {
+      List<Warehouse> seeded = readSeed(seed.get());
+      createAll(seeded);
+      LOGGER.infof("Loaded %d warehouses from %s", seeded.size(), seed.get());
+    }
+  }
+
+  @Override
+  public List<Warehouse> getAll() {
+    return findActive(null, null, null);
+  }
+
+  @Override
+  public List<Warehouse> findActive(String location, String afterBusinessUnitCode, Integer limit) {
+    List<Warehouse> page = new ArrayList<>(limit != null ? limit : 16);
+    streamActive(
+        location,
+        afterBusinessUnitCode,
+        limit != null ? limit : Integer.MAX_VALUE,
+        page::add);
+    return page;
+  }
+
+  @Override
+  public void streamActive(String location, Consumer<Warehouse> consumer) {
+    streamActive(location, null, Integer.MAX_VALUE, consumer);
+  }
+
+  @Override
+  public void create(Warehouse warehouse) {
+    insert(warehouse, ids.incrementAndGet());
+  }
+
+  @Override
+  public void createAll(List<Warehouse> warehouses) {
+    for (Warehouse warehouse : warehouses) {
+      create(warehouse);
+    }
+  }
+
+  @Override
+  public void update(Warehouse warehouse) {
+    withWarehouse(
+        warehouse.businessUnitCode,
+        () -> {
+          // read under the lock of the warehouse: no other writer can change it until the locks
+          // of its locations are taken
+          StoredWarehouse existing = warehouses.get(warehouse.businessUnitCode);
+          if (existing == null) {
+            return;
+          }
+          Warehouse updated = copy(existing.warehouse);
+          updated.location = warehouse.location;
+          updated.capacity = warehouse.capacity;
+          updated.stock = warehouse.stock;
+          if (warehouse.archivedAt != null) {
+            updated.archivedAt = warehouse.archivedAt;
+          }
+          withLocations(
+              existing.warehouse.location,
+              updated.location,
+              () -> {
+                unindex(existing.warehouse);
+                warehouses.put(
+                    updated.businessUnitCode, new StoredWarehouse(existing.id, updated));
+                appendGeneration(
+                    updated,
+                    warehouse.archivedAt != null ? warehouse.archivedAt : LocalDateTime.now());
+                index(updated);
+              });
+        });
+  }
+
+  @Override
+  public void remove(Warehouse warehouse) {
+    withWarehouse(
+        warehouse.businessUnitCode,
+        () -> {
+          StoredWarehouse existing = warehouses.get(warehouse.businessUnitCode);
+          if (existing == null) {
+            return;
+          }
+          withLocations(
+              existing.warehouse.location,
+              existing.warehouse.location,
+              () -> {
+                warehouses.remove(warehouse.businessUnitCode);
+                businessUnitCodesById.remove(existing.id);
+                generations.remove(existing.warehouse.businessUnitCode);
+                unindex(existing.warehouse);
+              });
+        });
+  }
+
+  @Override
+  public Warehouse findByBusinessUnitCode(String buCode) {
+    StoredWarehouse stored = buCode != null ? warehouses.get(buCode) : null;
+    return stored != null ? copy(stored.warehouse) : null;
+  }
+
+  @Override
+  public Warehouse findWarehouseById(Long id) {
+    String businessUnitCode = businessUnitCodesById.get(id);
+    return businessUnitCode != null ? findByBusinessUnitCode(businessUnitCode) : null;
+  }
+
+  // the lock of the warehouse is held until the transaction ends: concurrent replacements of the
+  // same warehouse are checked one after the other, each against the state the previous one left
+  @Override
+  public Warehouse findByBusinessUnitCodeForUpdate(String buCode) {
+    if (buCode != null && transactionActive()) {
+      hold(HELD_WAREHOUSES, warehouseLocks, buCode);
+    }
+    return findByBusinessUnitCode(buCode);
+  }
+
+  @Override
+  public Warehouse findWarehouseByIdForUpdate(Long id) {
+    String businessUnitCode = businessUnitCodesById.get(id);
+    return businessUnitCode != null ? findByBusinessUnitCodeForUpdate(businessUnitCode) : null;
+  }
+
+  @Override
+  public List<WarehouseGeneration> findGenerations(String buCode) {
+    List<WarehouseGeneration> stored = buCode != null ? generations.get(buCode) : null;
+    if (stored == null) {
+      return List.of();
+    }
+    return stored.stream().map(InMemoryWarehouseStore::copy).toList();
+  }
+
+  @Override
+  public List<WarehouseGeneration> findActiveAsOf(LocalDateTime asOf, String buCode) {
+    Collection<List<WarehouseGeneration>> candidates;
+    if (buCode == null) {
+      candidates = generations.values();
+    } else {
+      List<WarehouseGeneration> stored = generations.get(buCode);
+      candidates = stored != null ? List.of(stored) : List.of();
+    }
+    List<WarehouseGeneration> active = new ArrayList<>();
+    for (List<WarehouseGeneration> stored : candidates) {
+      WarehouseGeneration generation = generationAsOf(stored, asOf);
+      if (generation != null && generation.warehouse.archivedAt == null) {
+        active.add(copy(generation));
+      }
+    }
+    return active;
+  }
+
+  @Override
+  public List<Warehouse> findActiveByLocation(String location) {
+    return findActive(location, null, null);
+  }
+
+  @Override
+  public Set<String> findExistingBusinessUnitCodes(Collection<String> buCodes) {
+    Set<String> existing = new HashSet<>();
+    for (String buCode : buCodes) {
+      if (warehouses.containsKey(buCode)) {
+        existing.add(buCode);
+      }
+    }
+    return existing;
+  }
+
+  @Override
+  public LocationOccupancy findOccupancyByLocation(String location) {
+    LocationOccupancy[] snapshot = new LocationOccupancy[1];
+    withLocations(location, location, () -> snapshot[0] = occupancySnapshot(location));
+    return snapshot[0];
+  }
+
+  @Override
+  public LocationOccupancy lockOccupancyByLocation(String location) {
+    if (!transactionActive()) {
+      return findOccupancyByLocation(location);
+    }
+    hold(HELD_LOCATIONS, locationLocks, location);
+    return occupancySnapshot(location);
+  }
+
+  private void streamActive(
+      String location, String afterBusinessUnitCode, int limit, Consumer<Warehouse> consumer) {
+    NavigableSet<String> codes =
+        location != null ? activeCodesByLocation.get(location) : activeCodes;
+    if (codes == null) {
+      return;
+    }
+    if (afterBusinessUnitCode != null) {
+      codes = codes.tailSet(afterBusinessUnitCode, false);
+    }
+    int count = 0;
+    for (String businessUnitCode : codes) {
+      if (count >= limit) {
+        return;
+      }
+      // the indexes are updated after the warehouse itself, skip what changed since
+      StoredWarehouse stored = warehouses.get(businessUnitCode);
+      if (stored != null
+          && stored.warehouse.archivedAt == null
+          && (location == null || location.equals(stored.warehouse.location))) {
+        consumer.accept(copy(stored.warehouse));
+        count++;
+      }
+    }
+  }
+
+  private void insert(Warehouse warehouse, long id) {
+    Warehouse created = copy(warehouse);
+    if (created.createdAt == null) {
+      created.createdAt = LocalDateTime.now();
+    }
+    created.archivedAt = null;
+    withLocations(
+        created.location,
+        created.location,
+        () -> {
+          if (warehouses.putIfAbsent(created.businessUnitCode, new StoredWarehouse(id, created))
+              != null) {
+            throw new BusinessUnitCodeTakenException(created.businessUnitCode, null);
+          }
+          businessUnitCodesById.put(id, created.businessUnitCode);
+          appendGeneration(created, created.createdAt);
+          index(created);
+        });
+  }
+
+  // called with the lock of the location of the warehouse held
+  private void appendGeneration(Warehouse warehouse, LocalDateTime validFrom) {
+    List<WarehouseGeneration> stored =
+        generations.getOrDefault(warehouse.businessUnitCode, List.of());
+    List<WarehouseGeneration> appended = new ArrayList<>(stored.size() + 1);
+    appended.addAll(stored);
+    appended.add(new WarehouseGeneration(stored.size() + 1, validFrom, copy(warehouse)));
+    generations.put(warehouse.businessUnitCode, List.copyOf(appended));
+  }
+
+  // the latest generation started at or before the given time, found by binary search as the
+  // generations are ordered by validFrom
+  private static WarehouseGeneration generationAsOf(
+      List<WarehouseGeneration> stored, LocalDateTime asOf) {
+    int low = 0;
+    int high = stored.size() - 1;
+    WarehouseGeneration found = null;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      WarehouseGeneration generation = stored.get(middle);
+      if (generation.validFrom.isAfter(asOf)) {
+        high = middle - 1;
+      } else {
+        found = generation;
+        low = middle + 1;
+      }
+    }
+    return found;
+  }
+
+  // both called with the lock of the location of the warehouse held
+  private void index(Warehouse warehouse) {
+    if (warehouse.location == null || warehouse.archivedAt != null) {
+      return;
+    }
+    activeCodes.add(warehouse.businessUnitCode);
+    activeCodesByLocation
+        .computeIfAbsent(warehouse.location, l -> new ConcurrentSkipListSet<>())
+        .add(warehouse.businessUnitCode);
+    LocationOccupancy occupancy =
+        occupancies.computeIfAbsent(warehouse.location, LocationOccupancy::empty);
+    occupancy.activeWarehouses++;
+    occupancy.totalCapacity += warehouse.capacity != null ? warehouse.capacity : 0;
+    occupancy.totalStock += warehouse.stock != null ? warehouse.stock : 0;
+  }
+
+  private void unindex(Warehouse warehouse) {
+    if (warehouse.location == null || warehouse.archivedAt != null) {
+      return;
+    }
+    activeCodes.remove(warehouse.businessUnitCode);
+    activeCodesByLocation.get(warehouse.location).remove(warehouse.businessUnitCode);
+    LocationOccupancy occupancy = occupancies.get(warehouse.location);
+    occupancy.activeWarehouses--;
+    occupancy.totalCapacity -= warehouse.capacity != null ? warehouse.capacity : 0;
+    occupancy.totalStock -= warehouse.stock != null ? warehouse.stock : 0;
+  }
+
+  private LocationOccupancy occupancySnapshot(String location) {
+    LocationOccupancy occupancy = occupancies.get(location);
+    return occupancy != null
+        ? new LocationOccupancy(
+            location, occupancy.activeWarehouses, occupancy.totalCapacity, occupancy.totalStock)
+        : LocationOccupancy.empty(location);
+  }
+
+  // Runs the change holding the locks of both locations, taken in a stable order. Locks already
+  // held by the current transaction are not taken again.
+  private void withLocations(String location, String otherLocation, Runnable change) {
+    List<Semaphore> acquired = new ArrayList<>(2);
+    Set<String> held = transactionActive() ? held(HELD_LOCATIONS, locationLocks) : Set.of();
+    try {
+      for (String next : ordered(location, otherLocation)) {
+        if (!held.contains(next)) {
+          Semaphore lock = locationLocks.computeIfAbsent(next, l -> new Semaphore(1));
+          lock.acquireUninterruptibly();
+          acquired.add(lock);
+        }
+      }
+      change.run();
+    } finally {
+      acquired.forEach(Semaphore::release);
+    }
+  }
+
+  private static List<String> ordered(String location, String otherLocation) {
+    List<String> locations = new ArrayList<>(2);
+    if (location != null) {
+      locations.add(location);
+    }
+    if (otherLocation != null && !otherLocation.equals(location)) {
+      locations.add(otherLocation);
+    }
+    locations.sort(null);
+    return locations;
+  }
+
+  // Runs the change holding the lock of the warehouse, unless the current transaction holds it
+  private void withWarehouse(String businessUnitCode, Runnable change) {
+    if (businessUnitCode == null
+        || (transactionActive()
+            && held(HELD_WAREHOUSES, warehouseLocks).contains(businessUnitCode))) {
+      change.run();
+      return;
+    }
+    Semaphore lock = warehouseLocks.computeIfAbsent(businessUnitCode, c -> new Semaphore(1));
+    lock.acquireUninterruptibly();
+    try {
+      change.run();
+    } finally {
+      lock.release();
+    }
+  }
+
+  // takes the lock for the current transaction, unless it holds it already
+  private void hold(String resource, ConcurrentHashMap<String, Semaphore> locks, String key) {
+    if (held(resource, locks).add(key)) {
+      locks.computeIfAbsent(key, k -> new Semaphore(1)).acquireUninterruptibly();
+    }
+  }
+
+  private boolean transactionActive() {
+    return transactionSynchronizationRegistry != null
+        && transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_ACTIVE;
+  }
+
+  // the keys of the locks locked by the current transaction, released once it has ended
+  @SuppressWarnings("unchecked")
+  private Set<String> held(String resource, ConcurrentHashMap<String, Semaphore> locks) {
+    Set<String> held = (Set<String>) transactionSynchronizationRegistry.getResource(resource);
+    if (held == null) {
+      Set<String> keys = new HashSet<>();
+      transactionSynchronizationRegistry.putResource(resource, keys);
+      transactionSynchronizationRegistry.registerInterposedSynchronization(
+          new Synchronization() {
+            @Override
+            public void beforeCompletion() {}
+
+            @Override
+            public void afterCompletion(int status) {
+              keys.forEach(key -> locks.get(key).release());
+            }
+          });
+      held = keys;
+    }
+    return held;
+  }
+
+  private static Warehouse copy(Warehouse warehouse) {
+    Warehouse copy = new Warehouse();
+    copy.businessUnitCode = warehouse.businessUnitCode;
+    copy.location = warehouse.location;
+    copy.capacity = warehouse.capacity;
+    copy.stock = warehouse.stock;
+    copy.createdAt = warehouse.createdAt;
+    copy.archivedAt = warehouse.archivedAt;
+    return copy;
+  }
+
+  private static WarehouseGeneration copy(WarehouseGeneration generation) {
+    return new WarehouseGeneration(
+        generation.generation, generation.validFrom, copy(generation.warehouse));
+  }
+
+  private static List<Warehouse> readSeed(String resource) {
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    if (classLoader == null) {
+      classLoader = InMemoryWarehouseStore.class.getClassLoader();
+    }
+    try (InputStream input = classLoader.getResourceAsStream(resource)) {
+      if (input == null) {
+        throw new IllegalStateException("Warehouse seed '" + resource + "' not found.");
+      }
+      return parse(new InputStreamReader(input, StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // one warehouse per line: businessUnitCode,location,capacity,stock,createdAt (yyyy-MM-dd)
+  static List<Warehouse> parse(Reader seed) throws IOException {
+    List<Warehouse> warehouses = new ArrayList<>();
+    BufferedReader reader = new BufferedReader(seed);
+    int lineNumber = 0;
+    for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+      lineNumber++;
+      line = line.trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] fields = line.split(",");
+      if (fields.length != 5) {
+        throw new IllegalArgumentException(
+            "Invalid warehouse at line " + lineNumber + " of the seed: " + line);
+      }
+      try {
+        Warehouse warehouse = new Warehouse();
+        warehouse.businessUnitCode = fields[0].trim();
+        warehouse.location = fields[1].trim();
+        warehouse.capacity = Integer.parseInt(fields[2].trim());
+        warehouse.stock = Integer.parseInt(fields[3].trim());
+        warehouse.createdAt = LocalDate.parse(fields[4].trim()).atStartOfDay();
+        warehouses.add(warehouse);
+      } catch (NumberFormatException | DateTimeParseException e) {
+        throw new IllegalArgumentException(
+            "Invalid warehouse at line " + lineNumber + " of the seed: " + line, e);
+      }
+    }
+    return warehouses;
+  }
+
+  private static final class StoredWarehouse {
+    final long id;
+    final Warehouse warehouse;
+
+    StoredWarehouse(long id, Warehouse warehouse) {
+      this.id = id;
+      this.warehouse = warehouse;
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.fulfilment.application.monolith.warehouses.adapters.metrics;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseRejection;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseOperationMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Every meter is registered up front and looked up by ordinal, so that recording is an array read
+// and an update of the meter, without tags or builders on the request path.
+@ApplicationScoped
+public class MicrometerWarehouseOperationMetrics implements WarehouseOperationMetrics {
+
+  private static final Operation[] OPERATIONS = Operation.values();
+
+  private static final Outcome[] OUTCOMES = Outcome.values();
+
+  private static final WarehouseRejection[] REJECTIONS = WarehouseRejection.values();
+
+  private final Timer[][] timers = new Timer[OPERATIONS.length][OUTCOMES.length];
+
+  private final Counter[][] rejections = new Counter[OPERATIONS.length][REJECTIONS.length];
+
+  @Inject
+  public MicrometerWarehouseOperationMetrics(MeterRegistry meterRegistry) {
+    for (Operation operation : OPERATIONS) {
+      for (Outcome outcome : OUTCOMES) {
+        timers[operation.ordinal()][outcome.ordinal()] =
+            Timer.builder("warehouse.operations")
+                .description("Duration of the warehouse operations, by outcome")
+                .tag("operation", tagValue(operation))
+                .tag("outcome", tagValue(outcome))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+      }
+      for (WarehouseRejection rejection : REJECTIONS) {
+        rejections[operation.ordinal()][rejection.ordinal()] =
+            Counter.builder("warehouse.rejections")
+                .description("Warehouses rejected by a business rule, by rule")
+                .tag("operation", tagValue(operation))
+                .tag("reason", tagValue(rejection))
+                .register(meterRegistry);
+      }
+    }
+  }
+
+  @Override
+  public void timed(Operation operation, Outcome outcome, long durationNanos) {
+    timers[operation.ordinal()][outcome.ordinal()].record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void rejected(Operation operation, WarehouseRejection rejection) {
+    rejections[operation.ordinal()][rejection.ordinal()].increment();
+  }
+
+  private static String tagValue(Enum<?> value) {
+    return value.name().toLowerCase(Locale.ROOT).replace('_', '-');
+  }
+}
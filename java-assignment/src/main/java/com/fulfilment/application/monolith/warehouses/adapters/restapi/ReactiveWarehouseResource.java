@@ -0,0 +1,210 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.ReactiveWarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.PlannedWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseGeneration;
+import com.fulfilment.application.monolith.warehouses.domain.ports.BatchCreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.PlanWarehouseCapacityOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveArchiveWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveCreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveReplaceWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.warehouse.api.beans.WarehouseBatchResult;
+import com.warehouse.api.beans.WarehousePlan;
+import com.warehouse.api.beans.WarehousePlanOperation;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
+import java.util.List;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+// Serves the same contract as WarehouseResourceImpl (see warehouse-openapi.yaml) on the event loop,
+// enabled with warehouse.store.kind=reactive
+@Path("warehouse")
+@ApplicationScoped
+@Produces("application/json")
+@Consumes("application/json")
+@IfBuildProperty(name = "warehouse.store.kind", stringValue = "reactive")
+public class ReactiveWarehouseResource {
+
+  @Inject ReactiveWarehouseRepository warehouseRepository;
+
+  @Inject ReactiveCreateWarehouseOperation createWarehouseOperation;
+
+  @Inject ReactiveReplaceWarehouseOperation replaceWarehouseOperation;
+
+  @Inject ReactiveArchiveWarehouseOperation archiveWarehouseOperation;
+
+  @Inject BatchCreateWarehouseOperation batchCreateWarehouseOperation;
+
+  @Inject PlanWarehouseCapacityOperation planWarehouseCapacityOperation;
+
+  // the history is read through the blocking store, it is not served by the reactive client
+  @Inject WarehouseStore warehouseStore;
+
+  @GET
+  public Uni<List<com.warehouse.api.beans.Warehouse>> listAllWarehousesUnits(
+      @QueryParam("after") String after,
+      @QueryParam("limit") Integer limit,
+      @QueryParam("location") String location) {
+    if (limit != null && (limit < 1 || limit > WarehouseResourceImpl.MAX_PAGE_SIZE)) {
+      throw new WebApplicationException(
+          "Limit must be between 1 and " + WarehouseResourceImpl.MAX_PAGE_SIZE + ".", 400);
+    }
+    return warehouseRepository
+        .findActive(location, after, limit)
+        .map(
+            warehouses ->
+                warehouses.stream().map(WarehouseResourceImpl::toWarehouseResponse).toList());
+  }
+
+  @GET
+  @Path("stream")
+  @Produces("application/x-ndjson")
+  @RestStreamElementType(MediaType.APPLICATION_JSON)
+  public Multi<com.warehouse.api.beans.Warehouse> streamAllWarehousesUnits(
+      @QueryParam("location") String location) {
+    return warehouseRepository
+        .streamActive(location)
+        .map(WarehouseResourceImpl::toWarehouseResponse);
+  }
+
+  @POST
+  public Uni<com.warehouse.api.beans.Warehouse> createANewWarehouseUnit(
+      @NotNull com.warehouse.api.beans.Warehouse data) {
+    Warehouse domainWarehouse = WarehouseResourceImpl.toDomainWarehouse(data);
+    return warehouseRepository
+        .inTransaction(() -> createWarehouseOperation.create(domainWarehouse))
+        .map(ignored -> WarehouseResourceImpl.toWarehouseResponse(domainWarehouse));
+  }
+
+  // set-based validation and JDBC batching are what make the batch cheap, so it stays on the
+  // blocking adapter; both adapters maintain the same occupancy rows and locks
+  @POST
+  @Path("batch")
+  @Blocking
+  @Transactional
+  public List<WarehouseBatchResult> createWarehouseUnitsInBatch(
+      @NotNull List<com.warehouse.api.beans.Warehouse> data) {
+    List<Warehouse> domainWarehouses =
+        data.stream().map(WarehouseResourceImpl::toDomainWarehouse).toList();
+    return batchCreateWarehouseOperation.createAll(domainWarehouses).stream()
+        .map(WarehouseResourceImpl::toBatchResult)
+        .toList();
+  }
+
+  // the plan reads its snapshot through the blocking store and is then evaluated on the fork-join
+  // pool, neither belongs on the event loop
+  @POST
+  @Path("plan")
+  @Blocking
+  public WarehousePlan planWarehouseOperations(@NotNull List<WarehousePlanOperation> data) {
+    List<PlannedWarehouseOperation> operations =
+        data.stream().map(WarehouseResourceImpl::toPlannedOperation).toList();
+    return WarehouseResourceImpl.toPlanResponse(planWarehouseCapacityOperation.plan(operations));
+  }
+
+  @GET
+  @Path("as-of")
+  @Blocking
+  public List<com.warehouse.api.beans.WarehouseGeneration> listWarehousesAsOfAPointInTime(
+      @QueryParam("businessUnitCode") String businessUnitCode,
+      @QueryParam("timestamp") String timestamp) {
+    return warehouseStore
+        .findActiveAsOf(WarehouseResourceImpl.parseTimestamp(timestamp), businessUnitCode)
+        .stream()
+        .map(WarehouseResourceImpl::toGenerationResponse)
+        .toList();
+  }
+
+  @GET
+  @Path("{businessUnitCode}/generations")
+  @Blocking
+  public List<com.warehouse.api.beans.WarehouseGeneration> listTheGenerationsOfAWarehouse(
+      @PathParam("businessUnitCode") String businessUnitCode) {
+    List<WarehouseGeneration> generations = warehouseStore.findGenerations(businessUnitCode);
+    if (generations.isEmpty()) {
+      throw new WebApplicationException(
+          "Warehouse with business unit code '" + businessUnitCode + "' does not exist.", 404);
+    }
+    return generations.stream().map(WarehouseResourceImpl::toGenerationResponse).toList();
+  }
+
+  @GET
+  @Path("{id}")
+  public Uni<com.warehouse.api.beans.Warehouse> getAWarehouseUnitByID(@PathParam("id") String id) {
+    return findWarehouseByIdOrBusinessUnitCode(id)
+        .map(
+            warehouse -> {
+              if (warehouse == null) {
+                throw new WebApplicationException(
+                    "Warehouse with id or business unit code '" + id + "' does not exist.", 404);
+              }
+              return WarehouseResourceImpl.toWarehouseResponse(warehouse);
+            });
+  }
+
+  @DELETE
+  @Path("{id}")
+  public Uni<Void> archiveAWarehouseUnitByID(@PathParam("id") String id) {
+    return warehouseRepository.inTransaction(
+        () ->
+            findWarehouseByIdOrBusinessUnitCode(id)
+                .chain(
+                    warehouse -> {
+                      if (warehouse == null) {
+                        throw new WebApplicationException(
+                            "Warehouse with id or business unit code '"
+                                + id
+                                + "' does not exist.",
+                            404);
+                      }
+                      return archiveWarehouseOperation.archive(warehouse);
+                    }));
+  }
+
+  @POST
+  @Path("{businessUnitCode}/replacement")
+  public Uni<com.warehouse.api.beans.Warehouse> replaceTheCurrentActiveWarehouse(
+      @PathParam("businessUnitCode") String businessUnitCode,
+      @NotNull com.warehouse.api.beans.Warehouse data) {
+    Warehouse domainWarehouse = WarehouseResourceImpl.toDomainWarehouse(data);
+    // Ensure the business unit code matches
+    domainWarehouse.businessUnitCode = businessUnitCode;
+    return warehouseRepository
+        .inTransaction(() -> replaceWarehouseOperation.replace(domainWarehouse))
+        .map(ignored -> WarehouseResourceImpl.toWarehouseResponse(domainWarehouse));
+  }
+
+  private Uni<Warehouse> findWarehouseByIdOrBusinessUnitCode(String id) {
+    Long dbId;
+    try {
+      dbId = Long.parseLong(id);
+    } catch (NumberFormatException e) {
+      return warehouseRepository.findByBusinessUnitCode(id);
+    }
+    return warehouseRepository
+        .findById(dbId)
+        .chain(
+            warehouse ->
+                warehouse != null
+                    ? Uni.createFrom().item(warehouse)
+                    : warehouseRepository.findByBusinessUnitCode(id));
+  }
+}
@@ -0,0 +1,52 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fulfilment.application.monolith.warehouses.adapters.events.WarehouseEventLog;
+import io.smallrye.mutiny.Multi;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+
+// Server-sent feed of the warehouse creations, replacements and archivings, served with every
+// warehouse.store.kind. Each event carries its offset as id and its type as name, so that a client
+// reconnecting with Last-Event-ID (or ?after=) resumes right after the last event it received.
+@Path("warehouse/events")
+@ApplicationScoped
+public class WarehouseEventResource {
+
+  @Inject WarehouseEventLog eventLog;
+
+  @GET
+  @Produces(MediaType.SERVER_SENT_EVENTS)
+  public Multi<OutboundSseEvent> events(
+      @HeaderParam("Last-Event-ID") Long lastEventId,
+      @QueryParam("after") Long after,
+      @Context Sse sse) {
+    Long afterOffset = lastEventId != null ? lastEventId : after;
+    if (afterOffset != null && !eventLog.retains(afterOffset)) {
+      throw new WebApplicationException(
+          "Events after offset "
+              + afterOffset
+              + " are no longer retained, reload the warehouses and subscribe without offset.",
+          410);
+    }
+    return eventLog
+        .subscribe(afterOffset)
+        .map(
+            event ->
+                sse.newEventBuilder()
+                    .id(Long.toString(event.offset()))
+                    .name(event.type().name())
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(WarehouseResourceImpl.toWarehouseResponse(event.warehouse()))
+                    .build());
+  }
+}
@@ -1,23 +1,50 @@
 package com.fulfilment.application.monolith.warehouses.adapters.restapi;
 
-import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
-import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.warehouses.domain.models.CapacityPlan;
+import com.fulfilment.application.monolith.warehouses.domain.models.PlannedOperationVerdict;
+import com.fulfilment.application.monolith.warehouses.domain.models.PlannedWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCreationResult;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseGeneration;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.BatchCreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.PlanWarehouseCapacityOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import com.warehouse.api.WarehouseResource;
+import com.warehouse.api.beans.LocationUtilization;
+import com.warehouse.api.beans.WarehouseBatchResult;
+import com.warehouse.api.beans.WarehousePlan;
+import com.warehouse.api.beans.WarehousePlanOperation;
+import com.warehouse.api.beans.WarehousePlanVerdict;
+import io.quarkus.arc.properties.UnlessBuildProperty;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
+// replaced by ReactiveWarehouseResource when warehouse.store.kind=reactive
 @RequestScoped
+@UnlessBuildProperty(
+    name = "warehouse.store.kind",
+    stringValue = "reactive",
+    enableIfMissing = true)
 public class WarehouseResourceImpl implements WarehouseResource {
 
-  @Inject private WarehouseRepository warehouseRepository;
+  static final int MAX_PAGE_SIZE = 1000;
+
+  @Inject private WarehouseStore warehouseStore;
 
   @Inject private CreateWarehouseOperation createWarehouseOperation;
 
@@ -25,9 +52,31 @@ public class WarehouseResourceImpl implements WarehouseResource {
 
   @Inject private ArchiveWarehouseOperation archiveWarehouseOperation;
 
+  @Inject private BatchCreateWarehouseOperation batchCreateWarehouseOperation;
+
+  @Inject private PlanWarehouseCapacityOperation planWarehouseCapacityOperation;
+
+  @Inject private ObjectMapper objectMapper;
+
+  @Override
+  public List<com.warehouse.api.beans.Warehouse> listAllWarehousesUnits(
+      String after, Integer limit, String location) {
+    if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+      throw new WebApplicationException(
+          "Limit must be between 1 and " + MAX_PAGE_SIZE + ".", 400);
+    }
+    return warehouseStore.findActive(location, after, limit).stream()
+        .map(WarehouseResourceImpl::toWarehouseResponse)
+        .toList();
+  }
+
   @Override
-  public List<com.warehouse.api.beans.Warehouse> listAllWarehousesUnits() {
-    return warehouseRepository.getAll().stream().map(this::toWarehouseResponse).toList();
+  public Response streamAllWarehousesUnits(String location) {
+    StreamingOutput stream =
+        output ->
+            warehouseStore.streamActive(
+                location, warehouse -> writeLine(output, toWarehouseResponse(warehouse)));
+    return Response.ok(stream).build();
   }
 
   @Override
@@ -39,6 +88,44 @@ public class WarehouseResourceImpl implements WarehouseResource {
     return toWarehouseResponse(domainWarehouse);
   }
 
+  @Override
+  @Transactional
+  public List<WarehouseBatchResult> createWarehouseUnitsInBatch(
+      @NotNull List<com.warehouse.api.beans.Warehouse> data) {
+    List<Warehouse> domainWarehouses =
+        data.stream().map(WarehouseResourceImpl::toDomainWarehouse).toList();
+    return batchCreateWarehouseOperation.createAll(domainWarehouses).stream()
+        .map(WarehouseResourceImpl::toBatchResult)
+        .toList();
+  }
+
+  // read-only, no transaction: the plan is evaluated in memory once its snapshot is read
+  @Override
+  public WarehousePlan planWarehouseOperations(@NotNull List<WarehousePlanOperation> data) {
+    List<PlannedWarehouseOperation> operations =
+        data.stream().map(WarehouseResourceImpl::toPlannedOperation).toList();
+    return toPlanResponse(planWarehouseCapacityOperation.plan(operations));
+  }
+
+  @Override
+  public List<com.warehouse.api.beans.WarehouseGeneration> listWarehousesAsOfAPointInTime(
+      String businessUnitCode, String timestamp) {
+    return warehouseStore.findActiveAsOf(parseTimestamp(timestamp), businessUnitCode).stream()
+        .map(WarehouseResourceImpl::toGenerationResponse)
+        .toList();
+  }
+
+  @Override
+  public List<com.warehouse.api.beans.WarehouseGeneration> listTheGenerationsOfAWarehouse(
+      String businessUnitCode) {
+    List<WarehouseGeneration> generations = warehouseStore.findGenerations(businessUnitCode);
+    if (generations.isEmpty()) {
+      throw new WebApplicationException(
+          "Warehouse with business unit code '" + businessUnitCode + "' does not exist.", 404);
+    }
+    return generations.stream().map(WarehouseResourceImpl::toGenerationResponse).toList();
+  }
+
   @Override
   public com.warehouse.api.beans.Warehouse getAWarehouseUnitByID(String id) {
     Warehouse warehouse = findWarehouseByIdOrBusinessUnitCode(id);
@@ -52,7 +139,7 @@ public class WarehouseResourceImpl implements WarehouseResource {
   @Override
   @Transactional
   public void archiveAWarehouseUnitByID(String id) {
-    Warehouse warehouse = findWarehouseByIdOrBusinessUnitCode(id);
+    Warehouse warehouse = findWarehouseForUpdate(id);
     if (warehouse == null) {
       throw new WebApplicationException(
           "Warehouse with id or business unit code '" + id + "' does not exist.", 404);
@@ -75,18 +162,40 @@ public class WarehouseResourceImpl implements WarehouseResource {
     // Try to find by database ID first (if id is numeric)
     try {
       Long dbId = Long.parseLong(id);
-      DbWarehouse dbWarehouse = warehouseRepository.findById(dbId);
-      if (dbWarehouse != null) {
-        return dbWarehouse.toWarehouse();
+      Warehouse warehouse = warehouseStore.findWarehouseById(dbId);
+      if (warehouse != null) {
+        return warehouse;
       }
     } catch (NumberFormatException e) {
       // Not a numeric ID, try business unit code
     }
     // Try to find by business unit code
-    return warehouseRepository.findByBusinessUnitCode(id);
+    return warehouseStore.findByBusinessUnitCode(id);
   }
 
-  private Warehouse toDomainWarehouse(com.warehouse.api.beans.Warehouse apiWarehouse) {
+  // loads the warehouse once for the whole transaction, see WarehouseStore
+  private Warehouse findWarehouseForUpdate(String id) {
+    try {
+      Warehouse warehouse = warehouseStore.findWarehouseByIdForUpdate(Long.parseLong(id));
+      if (warehouse != null) {
+        return warehouse;
+      }
+    } catch (NumberFormatException e) {
+      // Not a numeric ID, try business unit code
+    }
+    return warehouseStore.findByBusinessUnitCodeForUpdate(id);
+  }
+
+  private void writeLine(OutputStream output, com.warehouse.api.beans.Warehouse warehouse) {
+    try {
+      output.write(objectMapper.writeValueAsBytes(warehouse));
+      output.write('\n');
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  static Warehouse toDomainWarehouse(com.warehouse.api.beans.Warehouse apiWarehouse) {
     Warehouse warehouse = new Warehouse();
     warehouse.businessUnitCode = apiWarehouse.getBusinessUnitCode();
     warehouse.location = apiWarehouse.getLocation();
@@ -95,7 +204,7 @@ public class WarehouseResourceImpl implements WarehouseResource {
     return warehouse;
   }
 
-  private com.warehouse.api.beans.Warehouse toWarehouseResponse(Warehouse warehouse) {
+  static com.warehouse.api.beans.Warehouse toWarehouseResponse(Warehouse warehouse) {
     var response = new com.warehouse.api.beans.Warehouse();
     response.setBusinessUnitCode(warehouse.businessUnitCode);
     response.setLocation(warehouse.location);
@@ -103,4 +212,91 @@ public class WarehouseResourceImpl implements WarehouseResource {
     response.setStock(warehouse.stock);
     return response;
   }
+
+  static PlannedWarehouseOperation toPlannedOperation(WarehousePlanOperation apiOperation) {
+    if (apiOperation == null) {
+      throw new WebApplicationException("Operations of the plan must be set.", 400);
+    }
+    PlannedWarehouseOperation.Type type;
+    try {
+      type = PlannedWarehouseOperation.Type.valueOf(String.valueOf(apiOperation.getType()));
+    } catch (IllegalArgumentException e) {
+      throw new WebApplicationException(
+          "Operation type must be one of CREATE, REPLACE or ARCHIVE.", 400);
+    }
+    if (apiOperation.getWarehouse() == null) {
+      throw new WebApplicationException("Operation warehouse must be set.", 400);
+    }
+    return new PlannedWarehouseOperation(type, toDomainWarehouse(apiOperation.getWarehouse()));
+  }
+
+  static WarehousePlan toPlanResponse(CapacityPlan plan) {
+    var response = new WarehousePlan();
+    response.setVerdicts(plan.verdicts.stream().map(WarehouseResourceImpl::toVerdict).toList());
+    response.setLocations(
+        plan.locations.stream().map(WarehouseResourceImpl::toLocationUtilization).toList());
+    return response;
+  }
+
+  static WarehousePlanVerdict toVerdict(PlannedOperationVerdict verdict) {
+    var response = new WarehousePlanVerdict();
+    response.setType(verdict.operation.type.name());
+    response.setBusinessUnitCode(verdict.operation.warehouse.businessUnitCode);
+    response.setAccepted(verdict.isAccepted());
+    response.setCode(verdict.code);
+    if (verdict.rejection != null) {
+      response.setReason(verdict.rejection.name());
+    }
+    response.setError(verdict.error);
+    return response;
+  }
+
+  static LocationUtilization toLocationUtilization(CapacityPlan.LocationUtilization utilization) {
+    var response = new LocationUtilization();
+    response.setLocation(utilization.occupancy().location);
+    response.setActiveWarehouses(utilization.occupancy().activeWarehouses);
+    response.setTotalCapacity(utilization.occupancy().totalCapacity);
+    response.setTotalStock(utilization.occupancy().totalStock);
+    if (utilization.location() != null) {
+      response.setMaxNumberOfWarehouses(utilization.location().maxNumberOfWarehouses);
+      response.setMaxCapacity(utilization.location().maxCapacity);
+    }
+    return response;
+  }
+
+  static LocalDateTime parseTimestamp(String timestamp) {
+    if (timestamp == null) {
+      throw new WebApplicationException("Timestamp must be set.", 400);
+    }
+    try {
+      return LocalDateTime.parse(timestamp);
+    } catch (DateTimeParseException e) {
+      throw new WebApplicationException(
+          "Timestamp '" + timestamp + "' is not a local date and time, e.g. 2024-07-01T12:00:00.",
+          400);
+    }
+  }
+
+  static com.warehouse.api.beans.WarehouseGeneration toGenerationResponse(
+      WarehouseGeneration generation) {
+    var response = new com.warehouse.api.beans.WarehouseGeneration();
+    response.setBusinessUnitCode(generation.warehouse.businessUnitCode);
+    response.setGeneration(generation.generation);
+    response.setValidFrom(generation.validFrom.toString());
+    response.setArchived(generation.warehouse.archivedAt != null);
+    response.setWarehouse(toWarehouseResponse(generation.warehouse));
+    return response;
+  }
+
+  static WarehouseBatchResult toBatchResult(WarehouseCreationResult result) {
+    var response = new WarehouseBatchResult();
+    response.setBusinessUnitCode(result.warehouse.businessUnitCode);
+    response.setCreated(result.isCreated());
+    response.setCode(result.code);
+    response.setError(result.error);
+    if (result.isCreated()) {
+      response.setWarehouse(toWarehouseResponse(result.warehouse));
+    }
+    return response;
+  }
 }
@@ -0,0 +1,11 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+// Thrown by the stores when a warehouse is created with a business unit code already in use. The
+// use cases check the code beforehand, but without a lock: a concurrent creation of the same code
+// is only caught by the unique key of the store.
+public class BusinessUnitCodeTakenException extends RuntimeException {
+
+  public BusinessUnitCodeTakenException(String businessUnitCode, Throwable cause) {
+    super("Business unit code '" + businessUnitCode + "' is already in use.", cause);
+  }
+}
@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+import java.util.List;
+
+public class CapacityPlan {
+  // one per planned operation, in the order they were submitted
+  public List<PlannedOperationVerdict> verdicts;
+
+  // the locations with active warehouses once the accepted operations are applied, with the
+  // limits of the catalog (null for a location the catalog does not know)
+  public List<LocationUtilization> locations;
+
+  public CapacityPlan(List<PlannedOperationVerdict> verdicts, List<LocationUtilization> locations) {
+    this.verdicts = verdicts;
+    this.locations = locations;
+  }
+
+  public record LocationUtilization(LocationOccupancy occupancy, Location location) {}
+}
@@ -0,0 +1,26 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+public class LocationOccupancy {
+  public String location;
+
+  // number of active (non-archived) warehouses at this location
+  public int activeWarehouses;
+
+  // sum of the capacities of the active warehouses at this location
+  public int totalCapacity;
+
+  // sum of the stock of the active warehouses at this location
+  public int totalStock;
+
+  public LocationOccupancy(
+      String location, int activeWarehouses, int totalCapacity, int totalStock) {
+    this.location = location;
+    this.activeWarehouses = activeWarehouses;
+    this.totalCapacity = totalCapacity;
+    this.totalStock = totalStock;
+  }
+
+  public static LocationOccupancy empty(String location) {
+    return new LocationOccupancy(location, 0, 0, 0);
+  }
+}
@@ -0,0 +1,36 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+public class PlannedOperationVerdict {
+  public PlannedWarehouseOperation operation;
+
+  // status code the operation would have been answered with
+  public int code;
+
+  // rule the operation was rejected by and its message, null when it was accepted
+  public WarehouseRejection rejection;
+
+  public String error;
+
+  public PlannedOperationVerdict(
+      PlannedWarehouseOperation operation, int code, WarehouseRejection rejection, String error) {
+    this.operation = operation;
+    this.code = code;
+    this.rejection = rejection;
+    this.error = error;
+  }
+
+  public static PlannedOperationVerdict accepted(PlannedWarehouseOperation operation) {
+    int code = operation.type == PlannedWarehouseOperation.Type.ARCHIVE ? 204 : 200;
+    return new PlannedOperationVerdict(operation, code, null, null);
+  }
+
+  public static PlannedOperationVerdict rejected(
+      PlannedWarehouseOperation operation, WarehouseViolation violation) {
+    return new PlannedOperationVerdict(
+        operation, violation.status(), violation.rejection(), violation.message());
+  }
+
+  public boolean isAccepted() {
+    return error == null;
+  }
+}
@@ -0,0 +1,22 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+// A creation, replacement or archiving submitted to PlanWarehouseCapacityOperation, evaluated
+// but never applied
+public class PlannedWarehouseOperation {
+
+  public enum Type {
+    CREATE,
+    REPLACE,
+    ARCHIVE
+  }
+
+  public Type type;
+
+  // only the business unit code is used to archive
+  public Warehouse warehouse;
+
+  public PlannedWarehouseOperation(Type type, Warehouse warehouse) {
+    this.type = type;
+    this.warehouse = warehouse;
+  }
+}
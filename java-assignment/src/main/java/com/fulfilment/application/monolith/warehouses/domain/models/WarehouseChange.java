@@ -0,0 +1,11 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+// A warehouse created, replaced or archived by one of the use cases, in its new state
+public record WarehouseChange(Type type, Warehouse warehouse) {
+
+  public enum Type {
+    CREATED,
+    REPLACED,
+    ARCHIVED
+  }
+}
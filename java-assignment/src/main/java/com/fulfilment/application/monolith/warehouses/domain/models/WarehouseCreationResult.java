@@ -0,0 +1,29 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+public class WarehouseCreationResult {
+  public Warehouse warehouse;
+
+  // status code the warehouse would have been answered with if created on its own
+  public int code;
+
+  // reason of the rejection, null when the warehouse was created
+  public String error;
+
+  public WarehouseCreationResult(Warehouse warehouse, int code, String error) {
+    this.warehouse = warehouse;
+    this.code = code;
+    this.error = error;
+  }
+
+  public static WarehouseCreationResult created(Warehouse warehouse) {
+    return new WarehouseCreationResult(warehouse, 200, null);
+  }
+
+  public static WarehouseCreationResult rejected(Warehouse warehouse, int code, String error) {
+    return new WarehouseCreationResult(warehouse, code, error);
+  }
+
+  public boolean isCreated() {
+    return error == null;
+  }
+}
@@ -0,0 +1,22 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+import java.time.LocalDateTime;
+
+// One immutable state of a warehouse: the one it was created with, then one per replacement and
+// a last one once archived. A generation is valid from its validFrom until the next one starts.
+public class WarehouseGeneration {
+
+  // numbered from 1 per business unit code
+  public int generation;
+
+  public LocalDateTime validFrom;
+
+  // archivedAt is only set on the generation that archived the warehouse
+  public Warehouse warehouse;
+
+  public WarehouseGeneration(int generation, LocalDateTime validFrom, Warehouse warehouse) {
+    this.generation = generation;
+    this.validFrom = validFrom;
+    this.warehouse = warehouse;
+  }
+}
@@ -0,0 +1,41 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+import jakarta.ws.rs.WebApplicationException;
+
+// A warehouse operation rejected by one of the business rules, answered with its status code.
+// An expected outcome rather than a failure: it carries no stack trace, and its message is only
+// formatted when it is read.
+public class WarehouseRejectedException extends WebApplicationException {
+
+  private final WarehouseViolation violation;
+
+  public WarehouseRejectedException(WarehouseViolation violation) {
+    super((String) null, violation.status());
+    this.violation = violation;
+  }
+
+  // throws the violation, if any
+  public static void throwIfPresent(WarehouseViolation violation) {
+    if (violation != null) {
+      throw violation.toException();
+    }
+  }
+
+  public WarehouseViolation getViolation() {
+    return violation;
+  }
+
+  public WarehouseRejection getRejection() {
+    return violation.rejection();
+  }
+
+  @Override
+  public String getMessage() {
+    return violation.message();
+  }
+
+  @Override
+  public Throwable fillInStackTrace() {
+    return this;
+  }
+}
@@ -0,0 +1,14 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+// Business rules a warehouse operation can be rejected by
+public enum WarehouseRejection {
+  DUPLICATE_BUSINESS_UNIT_CODE,
+  WAREHOUSE_NOT_FOUND,
+  WAREHOUSE_ARCHIVED,
+  INVALID_LOCATION,
+  INVALID_CAPACITY,
+  INVALID_STOCK,
+  MAX_WAREHOUSES_REACHED,
+  CAPACITY_EXCEEDED,
+  STOCK_MISMATCH
+}
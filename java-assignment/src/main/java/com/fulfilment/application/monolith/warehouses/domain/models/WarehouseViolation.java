@@ -0,0 +1,15 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+// The business rule a warehouse operation broke, with the values it was checked against. The
+// message is only formatted from the template when it is read.
+public record WarehouseViolation(
+    WarehouseRejection rejection, int status, String template, Object... arguments) {
+
+  public String message() {
+    return String.format(template, arguments);
+  }
+
+  public WarehouseRejectedException toException() {
+    return new WarehouseRejectedException(this);
+  }
+}
@@ -0,0 +1,9 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.CapacityPlan;
+import com.fulfilment.application.monolith.warehouses.domain.models.PlannedWarehouseOperation;
+import java.util.List;
+
+public interface PlanWarehouseCapacityOperation {
+  CapacityPlan plan(List<PlannedWarehouseOperation> operations);
+}
@@ -0,0 +1,8 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.smallrye.mutiny.Uni;
+
+public interface ReactiveArchiveWarehouseOperation {
+  Uni<Void> archive(Warehouse warehouse);
+}
@@ -0,0 +1,36 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import java.util.List;
+
+// Non-blocking counterpart of WarehouseStore, for adapters that never block the calling thread
+public interface ReactiveWarehouseStore {
+
+  // active warehouses ordered by business unit code, see WarehouseStore.findActive
+  Uni<List<Warehouse>> findActive(String location, String afterBusinessUnitCode, Integer limit);
+
+  // emits the active warehouses, ordered by business unit code, as they are read
+  Multi<Warehouse> streamActive(String location);
+
+  // fails with BusinessUnitCodeTakenException when the business unit code is already in use
+  Uni<Void> create(Warehouse warehouse);
+
+  Uni<Void> update(Warehouse warehouse);
+
+  Uni<Warehouse> findByBusinessUnitCode(String buCode);
+
+  // Loads the current state of the warehouse to change it, locked until the current transaction
+  // ends, see WarehouseStore.findByBusinessUnitCodeForUpdate. The warehouse row is locked before
+  // the occupancy rows, in the same order as the blocking adapter.
+  Uni<Warehouse> findByBusinessUnitCodeForUpdate(String buCode);
+
+  // concurrent writers to the same location are blocked until the current transaction completes
+  Uni<LocationOccupancy> lockOccupancyByLocation(String location);
+
+  // Runs the action once the current transaction has been committed, never when it is rolled back;
+  // right away when there is no transaction in progress
+  void afterCommit(Runnable action);
+}
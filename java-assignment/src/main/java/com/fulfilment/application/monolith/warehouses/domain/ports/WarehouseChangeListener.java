@@ -0,0 +1,12 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+
+// Told about every warehouse the use cases have written, right after the write and before the
+// transaction has ended. Listeners that must only see committed changes wait for its end.
+public interface WarehouseChangeListener {
+
+  WarehouseChangeListener NONE = change -> {};
+
+  void changed(WarehouseChange change);
+}
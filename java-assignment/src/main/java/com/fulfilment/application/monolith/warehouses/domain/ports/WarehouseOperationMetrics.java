@@ -0,0 +1,50 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseRejectedException;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseRejection;
+
+// Records the duration and outcome of the warehouse operations and the business rules they were
+// rejected by. Called on every request, so implementations must not allocate.
+public interface WarehouseOperationMetrics {
+
+  WarehouseOperationMetrics NONE =
+      new WarehouseOperationMetrics() {
+        @Override
+        public void timed(Operation operation, Outcome outcome, long durationNanos) {}
+
+        @Override
+        public void rejected(Operation operation, WarehouseRejection rejection) {}
+      };
+
+  enum Operation {
+    CREATE,
+    BATCH_CREATE,
+    REPLACE,
+    ARCHIVE
+  }
+
+  enum Outcome {
+    SUCCESS,
+    // rejected by a business rule
+    REJECTED,
+    ERROR
+  }
+
+  void timed(Operation operation, Outcome outcome, long durationNanos);
+
+  void rejected(Operation operation, WarehouseRejection rejection);
+
+  // Records an operation that started at startNanos and ended with the given failure, null when
+  // it succeeded
+  default void record(Operation operation, long startNanos, Throwable failure) {
+    long durationNanos = System.nanoTime() - startNanos;
+    if (failure == null) {
+      timed(operation, Outcome.SUCCESS, durationNanos);
+    } else if (failure instanceof WarehouseRejectedException rejectedException) {
+      timed(operation, Outcome.REJECTED, durationNanos);
+      rejected(operation, rejectedException.getRejection());
+    } else {
+      timed(operation, Outcome.ERROR, durationNanos);
+    }
+  }
+}
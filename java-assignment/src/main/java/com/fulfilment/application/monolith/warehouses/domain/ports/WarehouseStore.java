@@ -1,17 +1,66 @@
 package com.fulfilment.application.monolith.warehouses.domain.ports;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseGeneration;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface WarehouseStore {
 
   List<Warehouse> getAll();
 
+  // active warehouses ordered by business unit code, only those after the given business unit code
+  // when one is given (keyset pagination); location and limit are optional as well
+  List<Warehouse> findActive(String location, String afterBusinessUnitCode, Integer limit);
+
+  // hands the active warehouses, ordered by business unit code, to the consumer as they are read
+  void streamActive(String location, Consumer<Warehouse> consumer);
+
+  // throws BusinessUnitCodeTakenException when the business unit code is already in use
   void create(Warehouse warehouse);
 
+  void createAll(List<Warehouse> warehouses);
+
+  // Writes the new state of a warehouse loaded with one of the ForUpdate lookups of the current
+  // transaction, without loading it again. The previous state is kept as a generation of the
+  // warehouse.
   void update(Warehouse warehouse);
 
   void remove(Warehouse warehouse);
 
   Warehouse findByBusinessUnitCode(String buCode);
+
+  // looks a warehouse up by the id the store assigned to it, archived ones included
+  Warehouse findWarehouseById(Long id);
+
+  // Loads the current state of the warehouse to change it, locked until the current transaction
+  // ends. The warehouse is loaded once per transaction: later ForUpdate lookups and the update of
+  // the same warehouse reuse what was loaded.
+  Warehouse findByBusinessUnitCodeForUpdate(String buCode);
+
+  // same as findByBusinessUnitCodeForUpdate, by the id the store assigned to the warehouse
+  Warehouse findWarehouseByIdForUpdate(Long id);
+
+  // every generation of the warehouse, oldest first, empty when it does not exist
+  List<WarehouseGeneration> findGenerations(String buCode);
+
+  // the warehouses that were active at the given time, each in the generation it was at then,
+  // ordered by business unit code; only the given warehouse when a business unit code is given
+  List<WarehouseGeneration> findActiveAsOf(LocalDateTime asOf, String buCode);
+
+  // active warehouses at the location, ordered by business unit code
+  List<Warehouse> findActiveByLocation(String location);
+
+  // the subset of the given business unit codes that are already in use
+  Set<String> findExistingBusinessUnitCodes(Collection<String> buCodes);
+
+  LocationOccupancy findOccupancyByLocation(String location);
+
+  // same as findOccupancyByLocation, but concurrent writers to the same location are blocked until
+  // the current transaction completes
+  LocationOccupancy lockOccupancyByLocation(String location);
 }
@@ -1,49 +1,81 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseRejectedException;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseRejection;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseViolation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseChangeListener;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseOperationMetrics;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseOperationMetrics.Operation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.ws.rs.WebApplicationException;
 import java.time.LocalDateTime;
 
 @ApplicationScoped
 public class ArchiveWarehouseUseCase implements ArchiveWarehouseOperation {
 
   private final WarehouseStore warehouseStore;
+  private final WarehouseChangeListener changeListener;
+  private final WarehouseOperationMetrics metrics;
 
   @Inject
-  public ArchiveWarehouseUseCase(WarehouseStore warehouseStore) {
+  public ArchiveWarehouseUseCase(
+      WarehouseStore warehouseStore,
+      WarehouseChangeListener changeListener,
+      WarehouseOperationMetrics metrics) {
     this.warehouseStore = warehouseStore;
+    this.changeListener = changeListener;
+    this.metrics = metrics;
   }
 
   @Override
   public void archive(Warehouse warehouse) {
-    Warehouse existingWarehouse =
-        warehouseStore.findByBusinessUnitCode(warehouse.businessUnitCode);
+    long start = System.nanoTime();
+    try {
+      // the same load as the caller's when it loaded the warehouse for update already
+      Warehouse existingWarehouse =
+          warehouseStore.findByBusinessUnitCodeForUpdate(warehouse.businessUnitCode);
+      WarehouseRejectedException.throwIfPresent(checkArchivable(warehouse, existingWarehouse));
+      stampArchived(warehouse, existingWarehouse);
+
+      warehouseStore.update(warehouse);
+      changeListener.changed(new WarehouseChange(WarehouseChange.Type.ARCHIVED, warehouse));
+    } catch (RuntimeException e) {
+      metrics.record(Operation.ARCHIVE, start, e);
+      throw e;
+    }
+    metrics.record(Operation.ARCHIVE, start, null);
+  }
+
+  // Checks that the warehouse can be archived, null when it can
+  static WarehouseViolation checkArchivable(Warehouse warehouse, Warehouse existingWarehouse) {
     if (existingWarehouse == null) {
-      throw new WebApplicationException(
-          "Warehouse with business unit code '"
-              + warehouse.businessUnitCode
-              + "' does not exist.",
-          404);
+      return new WarehouseViolation(
+          WarehouseRejection.WAREHOUSE_NOT_FOUND,
+          404,
+          "Warehouse with business unit code '%s' does not exist.",
+          warehouse.businessUnitCode);
     }
 
     if (existingWarehouse.archivedAt != null) {
-      throw new WebApplicationException(
-          "Warehouse with business unit code '"
-              + warehouse.businessUnitCode
-              + "' is already archived.",
-          422);
+      return new WarehouseViolation(
+          WarehouseRejection.WAREHOUSE_ARCHIVED,
+          422,
+          "Warehouse with business unit code '%s' is already archived.",
+          warehouse.businessUnitCode);
     }
+    return null;
+  }
 
+  // Stamps the warehouse as archived, keeping the rest of its current state
+  static void stampArchived(Warehouse warehouse, Warehouse existingWarehouse) {
     warehouse.archivedAt = LocalDateTime.now();
     warehouse.location = existingWarehouse.location;
     warehouse.capacity = existingWarehouse.capacity;
     warehouse.stock = existingWarehouse.stock;
     warehouse.createdAt = existingWarehouse.createdAt;
-
-    warehouseStore.update(warehouse);
   }
 }
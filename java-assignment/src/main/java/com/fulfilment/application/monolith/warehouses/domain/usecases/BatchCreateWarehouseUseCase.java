@@ -0,0 +1,134 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCreationResult;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseViolation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.BatchCreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseChangeListener;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseOperationMetrics;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseOperationMetrics.Operation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.WarehouseRules.Cost;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+@ApplicationScoped
+public class BatchCreateWarehouseUseCase implements BatchCreateWarehouseOperation {
+
+  private final WarehouseStore warehouseStore;
+  private final LocationResolver locationResolver;
+  private final WarehouseChangeListener changeListener;
+  private final WarehouseOperationMetrics metrics;
+
+  @Inject
+  public BatchCreateWarehouseUseCase(
+      WarehouseStore warehouseStore,
+      LocationResolver locationResolver,
+      WarehouseChangeListener changeListener,
+      WarehouseOperationMetrics metrics) {
+    this.warehouseStore = warehouseStore;
+    this.locationResolver = locationResolver;
+    this.changeListener = changeListener;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public List<WarehouseCreationResult> createAll(List<Warehouse> warehouses) {
+    long start = System.nanoTime();
+    List<WarehouseCreationResult> results;
+    try {
+      results = doCreateAll(warehouses);
+    } catch (RuntimeException e) {
+      metrics.record(Operation.BATCH_CREATE, start, e);
+      throw e;
+    }
+    metrics.record(Operation.BATCH_CREATE, start, null);
+    return results;
+  }
+
+  private List<WarehouseCreationResult> doCreateAll(List<Warehouse> warehouses) {
+    Set<String> takenBusinessUnitCodes = new HashSet<>();
+    Map<String, LocationOccupancy> occupancies = new HashMap<>();
+
+    // the rules that need no query first, for the whole batch: the warehouses they reject take no
+    // part in the queries below
+    int size = warehouses.size();
+    WarehouseCandidate[] candidates = new WarehouseCandidate[size];
+    WarehouseViolation[] violations = new WarehouseViolation[size];
+    Set<String> businessUnitCodes = new HashSet<>();
+    for (int i = 0; i < size; i++) {
+      Warehouse warehouse = warehouses.get(i);
+      candidates[i] =
+          WarehouseCandidate.creation(
+              warehouse,
+              locationResolver,
+              () -> takenBusinessUnitCodes.contains(warehouse.businessUnitCode),
+              () -> occupancies.get(warehouse.location));
+      violations[i] = WarehouseRules.CREATE.check(candidates[i], Cost.PURE, Cost.CATALOG);
+      if (violations[i] == null && warehouse.businessUnitCode != null) {
+        businessUnitCodes.add(warehouse.businessUnitCode);
+      }
+    }
+
+    // one query for all the business unit codes left
+    takenBusinessUnitCodes.addAll(warehouseStore.findExistingBusinessUnitCodes(businessUnitCodes));
+
+    // one keyed read per distinct location still needed, locked in a stable order so that
+    // concurrent batches cannot deadlock each other
+    Set<String> lockedLocations = new TreeSet<>();
+    for (int i = 0; i < size; i++) {
+      Warehouse warehouse = warehouses.get(i);
+      if (violations[i] == null && !takenBusinessUnitCodes.contains(warehouse.businessUnitCode)) {
+        lockedLocations.add(warehouse.location);
+      }
+    }
+    for (String identifier : lockedLocations) {
+      occupancies.put(identifier, warehouseStore.lockOccupancyByLocation(identifier));
+    }
+
+    List<WarehouseCreationResult> results = new ArrayList<>(warehouses.size());
+    List<Warehouse> accepted = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      Warehouse warehouse = warehouses.get(i);
+      // in request order, each one seeing the warehouses accepted before it
+      WarehouseViolation violation =
+          violations[i] != null
+              ? violations[i]
+              : WarehouseRules.CREATE.check(candidates[i], Cost.DATABASE_READ, Cost.DATABASE_LOCK);
+      // rejections are results of the batch, not failures: nothing is thrown for them
+      if (violation != null) {
+        metrics.rejected(Operation.BATCH_CREATE, violation.rejection());
+        results.add(
+            WarehouseCreationResult.rejected(warehouse, violation.status(), violation.message()));
+        continue;
+      }
+
+      // the accepted warehouse consumes its share of the location for the rest of the batch
+      LocationOccupancy occupancy = occupancies.get(warehouse.location);
+      occupancy.activeWarehouses++;
+      occupancy.totalCapacity += warehouse.capacity;
+      occupancy.totalStock += warehouse.stock;
+      if (warehouse.businessUnitCode != null) {
+        takenBusinessUnitCodes.add(warehouse.businessUnitCode);
+      }
+      accepted.add(warehouse);
+      results.add(WarehouseCreationResult.created(warehouse));
+    }
+
+    warehouseStore.createAll(accepted);
+    for (Warehouse warehouse : accepted) {
+      changeListener.changed(new WarehouseChange(WarehouseChange.Type.CREATED, warehouse));
+    }
+    return results;
+  }
+}
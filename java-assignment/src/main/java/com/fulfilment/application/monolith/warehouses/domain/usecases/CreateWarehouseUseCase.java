@@ -1,94 +1,68 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
-import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
-import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.BusinessUnitCodeTakenException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseRejectedException;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseChangeListener;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseOperationMetrics;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseOperationMetrics.Operation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.ws.rs.WebApplicationException;
-import java.util.List;
 
 @ApplicationScoped
 public class CreateWarehouseUseCase implements CreateWarehouseOperation {
 
   private final WarehouseStore warehouseStore;
   private final LocationResolver locationResolver;
+  private final WarehouseChangeListener changeListener;
+  private final WarehouseOperationMetrics metrics;
 
   @Inject
-  public CreateWarehouseUseCase(WarehouseStore warehouseStore, LocationResolver locationResolver) {
+  public CreateWarehouseUseCase(
+      WarehouseStore warehouseStore,
+      LocationResolver locationResolver,
+      WarehouseChangeListener changeListener,
+      WarehouseOperationMetrics metrics) {
     this.warehouseStore = warehouseStore;
     this.locationResolver = locationResolver;
+    this.changeListener = changeListener;
+    this.metrics = metrics;
   }
 
   @Override
   public void create(Warehouse warehouse) {
-    // Business Unit Code Verification
-    Warehouse existingWarehouse = warehouseStore.findByBusinessUnitCode(warehouse.businessUnitCode);
-    if (existingWarehouse != null) {
-      throw new WebApplicationException(
-          "Warehouse with business unit code '" + warehouse.businessUnitCode + "' already exists.",
-          422);
-    }
-
-    // Location Validation
-    Location location = locationResolver.resolveByIdentifier(warehouse.location);
-    if (location == null) {
-      throw new WebApplicationException(
-          "Location '" + warehouse.location + "' is not valid.", 422);
-    }
-
-    // Warehouse Creation Feasibility - Check max number of warehouses
-    WarehouseRepository repository = (WarehouseRepository) warehouseStore;
-    List<Warehouse> activeWarehousesAtLocation = repository.findActiveByLocation(warehouse.location);
-    if (activeWarehousesAtLocation.size() >= location.maxNumberOfWarehouses) {
-      throw new WebApplicationException(
-          "Maximum number of warehouses ("
-              + location.maxNumberOfWarehouses
-              + ") has already been reached for location '"
-              + warehouse.location
-              + "'.",
-          422);
-    }
-
-    // Capacity and Stock Validation
-    if (warehouse.capacity == null || warehouse.capacity <= 0) {
-      throw new WebApplicationException("Warehouse capacity must be greater than 0.", 422);
+    long start = System.nanoTime();
+    try {
+      doCreate(warehouse);
+    } catch (RuntimeException e) {
+      metrics.record(Operation.CREATE, start, e);
+      throw e;
     }
+    metrics.record(Operation.CREATE, start, null);
+  }
 
-    if (warehouse.stock == null || warehouse.stock < 0) {
-      throw new WebApplicationException("Warehouse stock cannot be negative.", 422);
-    }
+  private void doCreate(Warehouse warehouse) {
+    // the business unit code is looked up, and the occupancy of the location locked, only once
+    // the rules that need neither have passed
+    WarehouseCandidate candidate =
+        WarehouseCandidate.creation(
+            warehouse,
+            locationResolver,
+            () -> warehouseStore.findByBusinessUnitCode(warehouse.businessUnitCode) != null,
+            () -> warehouseStore.lockOccupancyByLocation(warehouse.location));
+    WarehouseRejectedException.throwIfPresent(WarehouseRules.CREATE.check(candidate));
 
-    if (warehouse.stock > warehouse.capacity) {
-      throw new WebApplicationException(
-          "Warehouse stock (" + warehouse.stock + ") cannot exceed capacity (" + warehouse.capacity + ").",
-          422);
+    // if all went well, create the warehouse; the code was checked without a lock, a concurrent
+    // creation of the same code may have taken it since
+    try {
+      warehouseStore.create(warehouse);
+    } catch (BusinessUnitCodeTakenException e) {
+      throw WarehouseRules.businessUnitCodeTaken(warehouse).toException();
     }
-
-    // Check total capacity at location
-    int totalCapacityAtLocation =
-        activeWarehousesAtLocation.stream()
-            .mapToInt(w -> w.capacity != null ? w.capacity : 0)
-            .sum();
-    int newTotalCapacity = totalCapacityAtLocation + warehouse.capacity;
-    if (newTotalCapacity > location.maxCapacity) {
-      throw new WebApplicationException(
-          "Total capacity at location '"
-              + warehouse.location
-              + "' would exceed maximum capacity ("
-              + location.maxCapacity
-              + "). Current total: "
-              + totalCapacityAtLocation
-              + ", New warehouse capacity: "
-              + warehouse.capacity
-              + ".",
-          422);
-    }
-
-    // if all went well, create the warehouse
-    warehouseStore.create(warehouse);
+    changeListener.changed(new WarehouseChange(WarehouseChange.Type.CREATED, warehouse));
   }
 }
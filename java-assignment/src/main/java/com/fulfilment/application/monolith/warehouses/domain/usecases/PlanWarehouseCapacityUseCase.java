@@ -0,0 +1,290 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.CapacityPlan;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.PlannedOperationVerdict;
+import com.fulfilment.application.monolith.warehouses.domain.models.PlannedWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseViolation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.PlanWarehouseCapacityOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Evaluates operations against a snapshot of the warehouses and the locations, read once up front.
+// Operations that share no location and no business unit code cannot affect each other: they are
+// split into independent partitions, evaluated in parallel on the common fork-join pool, each one
+// applying its operations in request order with the validations of the live use cases.
+@ApplicationScoped
+public class PlanWarehouseCapacityUseCase implements PlanWarehouseCapacityOperation {
+
+  private final WarehouseStore warehouseStore;
+  private final LocationResolver locationResolver;
+
+  @Inject
+  public PlanWarehouseCapacityUseCase(
+      WarehouseStore warehouseStore, LocationResolver locationResolver) {
+    this.warehouseStore = warehouseStore;
+    this.locationResolver = locationResolver;
+  }
+
+  @Override
+  public CapacityPlan plan(List<PlannedWarehouseOperation> operations) {
+    Snapshot snapshot = snapshot(operations);
+    List<Partition> partitions = partition(operations, snapshot);
+
+    // partitions only write their own slots of the array and their own maps
+    PlannedOperationVerdict[] verdicts = new PlannedOperationVerdict[operations.size()];
+    partitions.parallelStream().forEach(partition -> partition.evaluate(operations, verdicts));
+
+    Map<String, LocationOccupancy> occupancies = new TreeMap<>(snapshot.occupancies);
+    for (Partition partition : partitions) {
+      occupancies.putAll(partition.occupancies);
+    }
+    List<CapacityPlan.LocationUtilization> locations = new ArrayList<>(occupancies.size());
+    for (LocationOccupancy occupancy : occupancies.values()) {
+      if (occupancy.activeWarehouses > 0) {
+        locations.add(
+            new CapacityPlan.LocationUtilization(
+                occupancy, snapshot.locations.get(occupancy.location)));
+      }
+    }
+    return new CapacityPlan(Arrays.asList(verdicts), locations);
+  }
+
+  // The only reads of the plan: the active warehouses, the archived ones the operations refer to
+  // and every location involved, each resolved once
+  private Snapshot snapshot(List<PlannedWarehouseOperation> operations) {
+    Snapshot snapshot = new Snapshot();
+    for (Warehouse warehouse : warehouseStore.getAll()) {
+      snapshot.warehouses.put(warehouse.businessUnitCode, warehouse);
+      occupancy(snapshot.occupancies, warehouse.location).activeWarehouses++;
+      add(snapshot.occupancies, warehouse);
+      snapshot.resolve(warehouse.location, locationResolver);
+    }
+
+    Set<String> inactiveCodes = new HashSet<>();
+    for (PlannedWarehouseOperation operation : operations) {
+      String code = businessUnitCode(operation);
+      if (code != null && !snapshot.warehouses.containsKey(code)) {
+        inactiveCodes.add(code);
+      }
+      if (operation.type != PlannedWarehouseOperation.Type.ARCHIVE && operation.warehouse != null) {
+        snapshot.resolve(operation.warehouse.location, locationResolver);
+      }
+    }
+    // archived warehouses keep their business unit code, and cannot be replaced or archived again
+    if (!inactiveCodes.isEmpty()) {
+      for (String code : warehouseStore.findExistingBusinessUnitCodes(inactiveCodes)) {
+        snapshot.warehouses.put(code, warehouseStore.findByBusinessUnitCode(code));
+      }
+    }
+    return snapshot;
+  }
+
+  // Groups the operations connected through a location or a business unit code, keeping the
+  // request order within each group
+  private static List<Partition> partition(
+      List<PlannedWarehouseOperation> operations, Snapshot snapshot) {
+    Map<String, String> parents = new HashMap<>();
+    String[] roots = new String[operations.size()];
+    for (int i = 0; i < operations.size(); i++) {
+      PlannedWarehouseOperation operation = operations.get(i);
+      List<String> keys = new ArrayList<>(3);
+      String code = businessUnitCode(operation);
+      if (code != null) {
+        keys.add("W:" + code);
+        Warehouse existing = snapshot.warehouses.get(code);
+        if (existing != null && existing.location != null) {
+          keys.add("L:" + existing.location);
+        }
+      }
+      if (operation.type != PlannedWarehouseOperation.Type.ARCHIVE
+          && operation.warehouse != null
+          && operation.warehouse.location != null) {
+        keys.add("L:" + operation.warehouse.location);
+      }
+      // an operation without business unit code nor location is a partition of its own
+      roots[i] = keys.isEmpty() ? "#" + i : keys.get(0);
+      for (String key : keys) {
+        union(parents, roots[i], key);
+      }
+    }
+
+    Map<String, Partition> partitions = new LinkedHashMap<>();
+    for (int i = 0; i < operations.size(); i++) {
+      partitions
+          .computeIfAbsent(find(parents, roots[i]), root -> new Partition(snapshot))
+          .operations
+          .add(i);
+    }
+    return new ArrayList<>(partitions.values());
+  }
+
+  private static String find(Map<String, String> parents, String key) {
+    String root = key;
+    for (String parent = parents.get(root); parent != null; parent = parents.get(root)) {
+      root = parent;
+    }
+    // path compression
+    while (!key.equals(root)) {
+      key = parents.put(key, root);
+    }
+    return root;
+  }
+
+  private static void union(Map<String, String> parents, String first, String second) {
+    String firstRoot = find(parents, first);
+    String secondRoot = find(parents, second);
+    if (!firstRoot.equals(secondRoot)) {
+      parents.put(secondRoot, firstRoot);
+    }
+  }
+
+  private static String businessUnitCode(PlannedWarehouseOperation operation) {
+    return operation.warehouse != null ? operation.warehouse.businessUnitCode : null;
+  }
+
+  private static LocationOccupancy occupancy(
+      Map<String, LocationOccupancy> occupancies, String location) {
+    return occupancies.computeIfAbsent(location, LocationOccupancy::empty);
+  }
+
+  private static void add(Map<String, LocationOccupancy> occupancies, Warehouse warehouse) {
+    LocationOccupancy occupancy = occupancy(occupancies, warehouse.location);
+    occupancy.totalCapacity += warehouse.capacity != null ? warehouse.capacity : 0;
+    occupancy.totalStock += warehouse.stock != null ? warehouse.stock : 0;
+  }
+
+  // only read while the partitions are evaluated
+  private static class Snapshot {
+    // active and archived warehouses by business unit code
+    final Map<String, Warehouse> warehouses = new HashMap<>();
+
+    final Map<String, LocationOccupancy> occupancies = new HashMap<>();
+
+    // null for the identifiers that are not in the catalog
+    final Map<String, Location> locations = new HashMap<>();
+
+    void resolve(String identifier, LocationResolver locationResolver) {
+      if (identifier != null && !locations.containsKey(identifier)) {
+        locations.put(identifier, locationResolver.resolveByIdentifier(identifier));
+      }
+    }
+  }
+
+  // The operations of a partition and what they changed, copied from the snapshot on first use
+  private static class Partition {
+    final Snapshot snapshot;
+
+    final List<Integer> operations = new ArrayList<>();
+
+    final Map<String, Warehouse> warehouses = new HashMap<>();
+
+    final Map<String, LocationOccupancy> occupancies = new HashMap<>();
+
+    Partition(Snapshot snapshot) {
+      this.snapshot = snapshot;
+    }
+
+    void evaluate(List<PlannedWarehouseOperation> all, PlannedOperationVerdict[] verdicts) {
+      for (int index : operations) {
+        PlannedWarehouseOperation operation = all.get(index);
+        WarehouseViolation violation = apply(operation);
+        verdicts[index] =
+            violation == null
+                ? PlannedOperationVerdict.accepted(operation)
+                : PlannedOperationVerdict.rejected(operation, violation);
+      }
+    }
+
+    // Applies the operation to the partition, unless it breaks a rule
+    private WarehouseViolation apply(PlannedWarehouseOperation operation) {
+      Warehouse warehouse = operation.warehouse;
+      Warehouse existing = warehouse(warehouse.businessUnitCode);
+      WarehouseViolation violation;
+      switch (operation.type) {
+        case CREATE -> {
+          violation =
+              WarehouseRules.CREATE.check(
+                  WarehouseCandidate.creation(
+                      warehouse,
+                      snapshot.locations::get,
+                      () -> existing != null,
+                      () -> occupancy(warehouse.location)));
+          if (violation == null) {
+            enter(warehouse);
+          }
+        }
+        case REPLACE -> {
+          violation =
+              WarehouseRules.REPLACE.check(
+                  WarehouseCandidate.replacement(
+                      warehouse,
+                      snapshot.locations::get,
+                      () -> existing,
+                      ignored -> occupancy(warehouse.location)));
+          if (violation == null) {
+            leave(existing);
+            warehouse.createdAt = existing.createdAt;
+            enter(warehouse);
+          }
+        }
+        case ARCHIVE -> {
+          violation = ArchiveWarehouseUseCase.checkArchivable(warehouse, existing);
+          if (violation == null) {
+            ArchiveWarehouseUseCase.stampArchived(warehouse, existing);
+            leave(existing);
+            warehouses.put(warehouse.businessUnitCode, warehouse);
+          }
+        }
+        default -> throw new IllegalStateException("Unknown operation " + operation.type);
+      }
+      return violation;
+    }
+
+    private Warehouse warehouse(String businessUnitCode) {
+      return warehouses.containsKey(businessUnitCode)
+          ? warehouses.get(businessUnitCode)
+          : snapshot.warehouses.get(businessUnitCode);
+    }
+
+    private LocationOccupancy occupancy(String location) {
+      return occupancies.computeIfAbsent(location, this::copy);
+    }
+
+    private LocationOccupancy copy(String location) {
+      LocationOccupancy occupancy = snapshot.occupancies.get(location);
+      return occupancy != null
+          ? new LocationOccupancy(
+              location, occupancy.activeWarehouses, occupancy.totalCapacity, occupancy.totalStock)
+          : LocationOccupancy.empty(location);
+    }
+
+    private void enter(Warehouse warehouse) {
+      occupancy(warehouse.location).activeWarehouses++;
+      add(occupancies, warehouse);
+      if (warehouse.businessUnitCode != null) {
+        warehouses.put(warehouse.businessUnitCode, warehouse);
+      }
+    }
+
+    private void leave(Warehouse warehouse) {
+      LocationOccupancy occupancy = occupancy(warehouse.location);
+      occupancy.activeWarehouses--;
+      occupancy.totalCapacity -= warehouse.capacity != null ? warehouse.capacity : 0;
+      occupancy.totalStock -= warehouse.stock != null ? warehouse.stock : 0;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseRejectedException;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveArchiveWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseChangeListener;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseOperationMetrics;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseOperationMetrics.Operation;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+// Same rules as ArchiveWarehouseUseCase, on a ReactiveWarehouseStore
+@ApplicationScoped
+public class ReactiveArchiveWarehouseUseCase implements ReactiveArchiveWarehouseOperation {
+
+  private final ReactiveWarehouseStore warehouseStore;
+  private final WarehouseChangeListener changeListener;
+  private final WarehouseOperationMetrics metrics;
+
+  @Inject
+  public ReactiveArchiveWarehouseUseCase(
+      ReactiveWarehouseStore warehouseStore,
+      WarehouseChangeListener changeListener,
+      WarehouseOperationMetrics metrics) {
+    this.warehouseStore = warehouseStore;
+    this.changeListener = changeListener;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public Uni<Void> archive(Warehouse warehouse) {
+    long start = System.nanoTime();
+    // the warehouse row first, then the occupancy row in update, like the replacement
+    return warehouseStore
+        .findByBusinessUnitCodeForUpdate(warehouse.businessUnitCode)
+        .invoke(
+            existingWarehouse -> {
+              WarehouseRejectedException.throwIfPresent(
+                  ArchiveWarehouseUseCase.checkArchivable(warehouse, existingWarehouse));
+              ArchiveWarehouseUseCase.stampArchived(warehouse, existingWarehouse);
+            })
+        .chain(() -> warehouseStore.update(warehouse))
+        .invoke(
+            () ->
+                warehouseStore.afterCommit(
+                    () ->
+                        changeListener.changed(
+                            new WarehouseChange(WarehouseChange.Type.ARCHIVED, warehouse))))
+        .onTermination()
+        .invoke(
+            (ignored, failure, cancelled) -> {
+              if (!cancelled) {
+                metrics.record(Operation.ARCHIVE, start, failure);
+              }
+            });
+  }
+}
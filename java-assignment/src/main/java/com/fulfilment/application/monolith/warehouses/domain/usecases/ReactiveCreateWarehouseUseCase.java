@@ -0,0 +1,99 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.BusinessUnitCodeTakenException;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseRejectedException;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseViolation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveCreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseChangeListener;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseOperationMetrics;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseOperationMetrics.Operation;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.WarehouseRules.Cost;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+// Same rules as CreateWarehouseUseCase, on a ReactiveWarehouseStore
+@ApplicationScoped
+public class ReactiveCreateWarehouseUseCase implements ReactiveCreateWarehouseOperation {
+
+  private final ReactiveWarehouseStore warehouseStore;
+  private final LocationResolver locationResolver;
+  private final WarehouseChangeListener changeListener;
+  private final WarehouseOperationMetrics metrics;
+
+  @Inject
+  public ReactiveCreateWarehouseUseCase(
+      ReactiveWarehouseStore warehouseStore,
+      LocationResolver locationResolver,
+      WarehouseChangeListener changeListener,
+      WarehouseOperationMetrics metrics) {
+    this.warehouseStore = warehouseStore;
+    this.locationResolver = locationResolver;
+    this.changeListener = changeListener;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public Uni<Void> create(Warehouse warehouse) {
+    long start = System.nanoTime();
+    // the rules that need no query run before the first one is issued
+    WarehouseViolation violation =
+        WarehouseRules.CREATE.check(
+            WarehouseCandidate.creation(warehouse, locationResolver, null, null),
+            Cost.PURE,
+            Cost.CATALOG);
+    Uni<Void> checked =
+        violation != null
+            ? Uni.createFrom().failure(violation.toException())
+            : checkStored(warehouse);
+    return checked
+        .chain(
+            () ->
+                warehouseStore
+                    .create(warehouse)
+                    .onFailure(BusinessUnitCodeTakenException.class)
+                    .transform(e -> WarehouseRules.businessUnitCodeTaken(warehouse).toException()))
+        .invoke(
+            () ->
+                warehouseStore.afterCommit(
+                    () ->
+                        changeListener.changed(
+                            new WarehouseChange(WarehouseChange.Type.CREATED, warehouse))))
+        .onTermination()
+        .invoke(
+            (ignored, failure, cancelled) -> {
+              if (!cancelled) {
+                metrics.record(Operation.CREATE, start, failure);
+              }
+            });
+  }
+
+  // Reads the business unit code, then locks the occupancy of the location, each time running the
+  // rules that need what was just read
+  private Uni<Void> checkStored(Warehouse warehouse) {
+    return warehouseStore
+        .findByBusinessUnitCode(warehouse.businessUnitCode)
+        .invoke(
+            existingWarehouse ->
+                WarehouseRejectedException.throwIfPresent(
+                    WarehouseRules.CREATE.check(
+                        WarehouseCandidate.creation(
+                            warehouse, locationResolver, () -> existingWarehouse != null, null),
+                        Cost.DATABASE_READ,
+                        Cost.DATABASE_READ)))
+        .chain(() -> warehouseStore.lockOccupancyByLocation(warehouse.location))
+        .invoke(
+            occupancy ->
+                WarehouseRejectedException.throwIfPresent(
+                    WarehouseRules.CREATE.check(
+                        WarehouseCandidate.creation(
+                            warehouse, locationResolver, null, () -> occupancy),
+                        Cost.DATABASE_LOCK,
+                        Cost.DATABASE_LOCK)))
+        .replaceWithVoid();
+  }
+}
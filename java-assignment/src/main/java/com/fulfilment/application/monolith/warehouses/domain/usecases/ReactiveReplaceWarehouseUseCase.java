@@ -0,0 +1,115 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseRejectedException;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseViolation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveReplaceWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseChangeListener;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseOperationMetrics;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseOperationMetrics.Operation;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.WarehouseRules.Cost;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+// Same rules as ReplaceWarehouseUseCase, on a ReactiveWarehouseStore
+@ApplicationScoped
+public class ReactiveReplaceWarehouseUseCase implements ReactiveReplaceWarehouseOperation {
+
+  private final ReactiveWarehouseStore warehouseStore;
+  private final LocationResolver locationResolver;
+  private final WarehouseChangeListener changeListener;
+  private final WarehouseOperationMetrics metrics;
+
+  @Inject
+  public ReactiveReplaceWarehouseUseCase(
+      ReactiveWarehouseStore warehouseStore,
+      LocationResolver locationResolver,
+      WarehouseChangeListener changeListener,
+      WarehouseOperationMetrics metrics) {
+    this.warehouseStore = warehouseStore;
+    this.locationResolver = locationResolver;
+    this.changeListener = changeListener;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public Uni<Void> replace(Warehouse newWarehouse) {
+    long start = System.nanoTime();
+    // the rules that need no query run before the first one is issued
+    WarehouseViolation violation =
+        WarehouseRules.REPLACE.check(
+            WarehouseCandidate.replacement(newWarehouse, locationResolver, null, null),
+            Cost.PURE,
+            Cost.CATALOG);
+    Uni<Void> checked =
+        violation != null
+            ? Uni.createFrom().failure(violation.toException())
+            : checkStored(newWarehouse);
+    return checked
+        .chain(() -> warehouseStore.update(newWarehouse))
+        .invoke(
+            () ->
+                warehouseStore.afterCommit(
+                    () ->
+                        changeListener.changed(
+                            new WarehouseChange(WarehouseChange.Type.REPLACED, newWarehouse))))
+        .onTermination()
+        .invoke(
+            (ignored, failure, cancelled) -> {
+              if (!cancelled) {
+                metrics.record(Operation.REPLACE, start, failure);
+              }
+            });
+  }
+
+  // Locks the warehouse being replaced, then the occupancy of the locations, each time running the
+  // rules that need what was just read: the rules validate the locked row, not a stale read
+  private Uni<Void> checkStored(Warehouse newWarehouse) {
+    return warehouseStore
+        .findByBusinessUnitCodeForUpdate(newWarehouse.businessUnitCode)
+        .chain(
+            existingWarehouse -> {
+              WarehouseRejectedException.throwIfPresent(
+                  WarehouseRules.REPLACE.check(
+                      WarehouseCandidate.replacement(
+                          newWarehouse, locationResolver, () -> existingWarehouse, null),
+                      Cost.DATABASE_READ,
+                      Cost.DATABASE_READ));
+
+              // same lock order as ReplaceWarehouseUseCase, so both can run side by side
+              String newLocation = newWarehouse.location;
+              String oldLocation = existingWarehouse.location;
+              Uni<LocationOccupancy> locked;
+              if (oldLocation == null || oldLocation.equals(newLocation)) {
+                locked = warehouseStore.lockOccupancyByLocation(newLocation);
+              } else if (oldLocation.compareTo(newLocation) < 0) {
+                locked =
+                    warehouseStore
+                        .lockOccupancyByLocation(oldLocation)
+                        .chain(() -> warehouseStore.lockOccupancyByLocation(newLocation));
+              } else {
+                locked =
+                    warehouseStore
+                        .lockOccupancyByLocation(newLocation)
+                        .call(() -> warehouseStore.lockOccupancyByLocation(oldLocation));
+              }
+              return locked.invoke(
+                  occupancy ->
+                      WarehouseRejectedException.throwIfPresent(
+                          WarehouseRules.REPLACE.check(
+                              WarehouseCandidate.replacement(
+                                  newWarehouse,
+                                  locationResolver,
+                                  () -> existingWarehouse,
+                                  ignored -> occupancy),
+                              Cost.DATABASE_LOCK,
+                              Cost.DATABASE_LOCK)));
+            })
+        .replaceWithVoid();
+  }
+}
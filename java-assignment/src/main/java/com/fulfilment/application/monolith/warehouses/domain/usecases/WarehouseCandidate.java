@@ -0,0 +1,98 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// A warehouse checked by WarehouseRules, with the inputs the rules read. Every input is looked up
+// on first use and kept: the lookups of the rules that never run are never made, and the ones the
+// caller needs afterwards, e.g. the warehouse being replaced, are not made twice.
+final class WarehouseCandidate {
+
+  final Warehouse warehouse;
+
+  private final Lookup<Location> location;
+
+  private final Lookup<Warehouse> existing;
+
+  private final Lookup<Boolean> businessUnitCodeTaken;
+
+  private final Lookup<LocationOccupancy> occupancy;
+
+  private WarehouseCandidate(
+      Warehouse warehouse,
+      LocationResolver locationResolver,
+      Supplier<Warehouse> existing,
+      Supplier<Boolean> businessUnitCodeTaken,
+      Function<Warehouse, LocationOccupancy> occupancy) {
+    this.warehouse = warehouse;
+    this.location = new Lookup<>(() -> locationResolver.resolveByIdentifier(warehouse.location));
+    this.existing = new Lookup<>(existing);
+    this.businessUnitCodeTaken =
+        new Lookup<>(
+            businessUnitCodeTaken != null
+                ? businessUnitCodeTaken
+                : () -> this.existing.get() != null);
+    this.occupancy = new Lookup<>(() -> occupancy.apply(this.existing.get()));
+  }
+
+  // A warehouse to create; the occupancy is the one of its location
+  static WarehouseCandidate creation(
+      Warehouse warehouse,
+      LocationResolver locationResolver,
+      Supplier<Boolean> businessUnitCodeTaken,
+      Supplier<LocationOccupancy> occupancy) {
+    return new WarehouseCandidate(
+        warehouse, locationResolver, () -> null, businessUnitCodeTaken, ignored -> occupancy.get());
+  }
+
+  // A replacement of the warehouse the existing lookup answers; the occupancy of its location is
+  // looked up given that warehouse
+  static WarehouseCandidate replacement(
+      Warehouse warehouse,
+      LocationResolver locationResolver,
+      Supplier<Warehouse> existing,
+      Function<Warehouse, LocationOccupancy> occupancy) {
+    return new WarehouseCandidate(warehouse, locationResolver, existing, null, occupancy);
+  }
+
+  // null when the location is not in the catalog
+  Location location() {
+    return location.get();
+  }
+
+  // the stored warehouse being replaced, null when there is none
+  Warehouse existing() {
+    return existing.get();
+  }
+
+  boolean businessUnitCodeTaken() {
+    return businessUnitCodeTaken.get();
+  }
+
+  LocationOccupancy occupancy() {
+    return occupancy.get();
+  }
+
+  private static final class Lookup<T> {
+    private Supplier<T> supplier;
+
+    private T value;
+
+    Lookup(Supplier<T> supplier) {
+      this.supplier = supplier;
+    }
+
+    // the supplier is dropped once called: the lookup may answer null
+    T get() {
+      if (supplier != null) {
+        value = supplier.get();
+        supplier = null;
+      }
+      return value;
+    }
+  }
+}
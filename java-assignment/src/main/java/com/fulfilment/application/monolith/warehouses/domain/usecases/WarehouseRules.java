@@ -0,0 +1,243 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseRejection;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseViolation;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+// The business rules of the warehouse creations and replacements, shared by the single, batch,
+// reactive and planned operations. Every rule declares the cost of the inputs it reads; the rules
+// run cheapest first and stop at the first one broken, so that a warehouse invalid on its own is
+// rejected before the catalog is looked up, and before any query is issued.
+final class WarehouseRules {
+
+  enum Cost {
+    // the warehouse on its own
+    PURE,
+    // the location catalog, held in memory
+    CATALOG,
+    // a keyed read of the stored warehouses, often answered by the caches
+    DATABASE_READ,
+    // the occupancy of a location, locked until the end of the transaction
+    DATABASE_LOCK
+  }
+
+  record Rule(Cost cost, Function<WarehouseCandidate, WarehouseViolation> check) {}
+
+  // declared in the order of the business rules, run in the order of their costs
+  static final WarehouseRules CREATE =
+      new WarehouseRules(
+          List.of(
+              new Rule(Cost.DATABASE_READ, WarehouseRules::businessUnitCodeIsFree),
+              new Rule(Cost.CATALOG, WarehouseRules::locationExists),
+              new Rule(Cost.DATABASE_LOCK, WarehouseRules::locationHasRoom),
+              new Rule(Cost.PURE, WarehouseRules::capacityIsPositive),
+              new Rule(Cost.PURE, WarehouseRules::stockIsNotNegative),
+              new Rule(Cost.PURE, WarehouseRules::stockFitsCapacity),
+              new Rule(Cost.DATABASE_LOCK, WarehouseRules::locationHasCapacity)));
+
+  static final WarehouseRules REPLACE =
+      new WarehouseRules(
+          List.of(
+              new Rule(Cost.DATABASE_READ, WarehouseRules::replacedWarehouseExists),
+              new Rule(Cost.DATABASE_READ, WarehouseRules::replacedWarehouseIsActive),
+              new Rule(Cost.CATALOG, WarehouseRules::locationExists),
+              new Rule(Cost.PURE, WarehouseRules::capacityIsPositive),
+              new Rule(Cost.PURE, WarehouseRules::stockIsNotNegative),
+              new Rule(Cost.DATABASE_READ, WarehouseRules::stockMatchesReplacedWarehouse),
+              new Rule(Cost.DATABASE_READ, WarehouseRules::capacityHoldsReplacedStock),
+              new Rule(Cost.DATABASE_LOCK, WarehouseRules::locationHasCapacityForReplacement)));
+
+  private final List<Rule> rules;
+
+  WarehouseRules(List<Rule> rules) {
+    // a stable sort: the rules of the same cost keep their order
+    this.rules = rules.stream().sorted(Comparator.comparing(Rule::cost)).toList();
+  }
+
+  // The first rule broken by the candidate, null when it breaks none
+  WarehouseViolation check(WarehouseCandidate candidate) {
+    return check(candidate, Cost.PURE, Cost.DATABASE_LOCK);
+  }
+
+  // Same, with the rules of the given costs only, for callers that gather the inputs of the more
+  // expensive rules themselves in between
+  WarehouseViolation check(WarehouseCandidate candidate, Cost from, Cost to) {
+    for (Rule rule : rules) {
+      if (rule.cost().compareTo(from) >= 0 && rule.cost().compareTo(to) <= 0) {
+        WarehouseViolation violation = rule.check().apply(candidate);
+        if (violation != null) {
+          return violation;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static WarehouseViolation capacityIsPositive(WarehouseCandidate candidate) {
+    Warehouse warehouse = candidate.warehouse;
+    if (warehouse.capacity == null || warehouse.capacity <= 0) {
+      return new WarehouseViolation(
+          WarehouseRejection.INVALID_CAPACITY, 422, "Warehouse capacity must be greater than 0.");
+    }
+    return null;
+  }
+
+  private static WarehouseViolation stockIsNotNegative(WarehouseCandidate candidate) {
+    Warehouse warehouse = candidate.warehouse;
+    if (warehouse.stock == null || warehouse.stock < 0) {
+      return new WarehouseViolation(
+          WarehouseRejection.INVALID_STOCK, 422, "Warehouse stock cannot be negative.");
+    }
+    return null;
+  }
+
+  private static WarehouseViolation stockFitsCapacity(WarehouseCandidate candidate) {
+    Warehouse warehouse = candidate.warehouse;
+    if (warehouse.stock > warehouse.capacity) {
+      return new WarehouseViolation(
+          WarehouseRejection.INVALID_STOCK,
+          422,
+          "Warehouse stock (%s) cannot exceed capacity (%s).",
+          warehouse.stock,
+          warehouse.capacity);
+    }
+    return null;
+  }
+
+  // the stock is carried over from the replaced warehouse, so is checked once it has been read
+  private static WarehouseViolation capacityHoldsReplacedStock(WarehouseCandidate candidate) {
+    Warehouse warehouse = candidate.warehouse;
+    Warehouse existing = candidate.existing();
+    if (warehouse.capacity < existing.stock) {
+      return new WarehouseViolation(
+          WarehouseRejection.INVALID_CAPACITY,
+          422,
+          "New warehouse capacity (%s) must be able to accommodate the stock (%s).",
+          warehouse.capacity,
+          existing.stock);
+    }
+    return null;
+  }
+
+  private static WarehouseViolation locationExists(WarehouseCandidate candidate) {
+    if (candidate.location() == null) {
+      return new WarehouseViolation(
+          WarehouseRejection.INVALID_LOCATION,
+          422,
+          "Location '%s' is not valid.",
+          candidate.warehouse.location);
+    }
+    return null;
+  }
+
+  private static WarehouseViolation businessUnitCodeIsFree(WarehouseCandidate candidate) {
+    return candidate.businessUnitCodeTaken() ? businessUnitCodeTaken(candidate.warehouse) : null;
+  }
+
+  // also answered when the store finds the code taken by a concurrent creation
+  static WarehouseViolation businessUnitCodeTaken(Warehouse warehouse) {
+    return new WarehouseViolation(
+        WarehouseRejection.DUPLICATE_BUSINESS_UNIT_CODE,
+        422,
+        "Warehouse with business unit code '%s' already exists.",
+        warehouse.businessUnitCode);
+  }
+
+  private static WarehouseViolation locationHasRoom(WarehouseCandidate candidate) {
+    Location location = candidate.location();
+    if (candidate.occupancy().activeWarehouses >= location.maxNumberOfWarehouses) {
+      return new WarehouseViolation(
+          WarehouseRejection.MAX_WAREHOUSES_REACHED,
+          422,
+          "Maximum number of warehouses (%s) has already been reached for location '%s'.",
+          location.maxNumberOfWarehouses,
+          candidate.warehouse.location);
+    }
+    return null;
+  }
+
+  private static WarehouseViolation locationHasCapacity(WarehouseCandidate candidate) {
+    Warehouse warehouse = candidate.warehouse;
+    Location location = candidate.location();
+    int totalCapacityAtLocation = candidate.occupancy().totalCapacity;
+    if (totalCapacityAtLocation + warehouse.capacity > location.maxCapacity) {
+      return new WarehouseViolation(
+          WarehouseRejection.CAPACITY_EXCEEDED,
+          422,
+          "Total capacity at location '%s' would exceed maximum capacity (%s). Current total: %s,"
+              + " New warehouse capacity: %s.",
+          warehouse.location,
+          location.maxCapacity,
+          totalCapacityAtLocation,
+          warehouse.capacity);
+    }
+    return null;
+  }
+
+  private static WarehouseViolation replacedWarehouseExists(WarehouseCandidate candidate) {
+    if (candidate.existing() == null) {
+      return new WarehouseViolation(
+          WarehouseRejection.WAREHOUSE_NOT_FOUND,
+          404,
+          "Warehouse with business unit code '%s' does not exist.",
+          candidate.warehouse.businessUnitCode);
+    }
+    return null;
+  }
+
+  private static WarehouseViolation replacedWarehouseIsActive(WarehouseCandidate candidate) {
+    if (candidate.existing().archivedAt != null) {
+      return new WarehouseViolation(
+          WarehouseRejection.WAREHOUSE_ARCHIVED,
+          422,
+          "Cannot replace an archived warehouse with business unit code '%s'.",
+          candidate.warehouse.businessUnitCode);
+    }
+    return null;
+  }
+
+  private static WarehouseViolation stockMatchesReplacedWarehouse(WarehouseCandidate candidate) {
+    Warehouse warehouse = candidate.warehouse;
+    Warehouse existing = candidate.existing();
+    if (!warehouse.stock.equals(existing.stock)) {
+      return new WarehouseViolation(
+          WarehouseRejection.STOCK_MISMATCH,
+          422,
+          "Stock of the new warehouse (%s) must match the stock of the warehouse being replaced"
+              + " (%s).",
+          warehouse.stock,
+          existing.stock);
+    }
+    return null;
+  }
+
+  private static WarehouseViolation locationHasCapacityForReplacement(
+      WarehouseCandidate candidate) {
+    Warehouse warehouse = candidate.warehouse;
+    Warehouse existing = candidate.existing();
+    Location location = candidate.location();
+    LocationOccupancy occupancy = candidate.occupancy();
+    int totalCapacityAtLocation = occupancy.totalCapacity;
+    if (warehouse.location.equals(existing.location)) {
+      // the warehouse being replaced no longer counts towards its location
+      totalCapacityAtLocation -= existing.capacity != null ? existing.capacity : 0;
+    }
+    if (totalCapacityAtLocation + warehouse.capacity > location.maxCapacity) {
+      return new WarehouseViolation(
+          WarehouseRejection.CAPACITY_EXCEEDED,
+          422,
+          "Total capacity at location '%s' would exceed maximum capacity (%s). Current total"
+              + " (excluding replaced warehouse): %s, New warehouse capacity: %s.",
+          warehouse.location,
+          location.maxCapacity,
+          totalCapacityAtLocation,
+          warehouse.capacity);
+    }
+    return null;
+  }
+}
@@ -8,10 +8,21 @@ INSERT INTO product(id, name, stock) VALUES (2, 'KALLAX', 5);
 INSERT INTO product(id, name, stock) VALUES (3, 'BESTÅ', 3);
 ALTER SEQUENCE product_seq RESTART WITH 4;
 
-INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt) 
-VALUES (1, 'MWH.001', 'ZWOLLE-001', 100, 10, '2024-07-01', null);
-INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt)
-VALUES (2, 'MWH.012', 'AMSTERDAM-001', 50, 5, '2023-07-01', null);
-INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt)
-VALUES (3, 'MWH.023', 'TILBURG-001', 30, 27, '2021-02-01', null);
+INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, generation) 
+VALUES (1, 'MWH.001', 'ZWOLLE-001', 100, 10, '2024-07-01', null, 1);
+INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, generation)
+VALUES (2, 'MWH.012', 'AMSTERDAM-001', 50, 5, '2023-07-01', null, 1);
+INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, generation)
+VALUES (3, 'MWH.023', 'TILBURG-001', 30, 27, '2021-02-01', null, 1);
 ALTER SEQUENCE warehouse_seq RESTART WITH 4;
+
+INSERT INTO warehouse_generation(businessUnitCode, generation, validFrom, location, capacity, stock, createdAt, archivedAt)
+VALUES ('MWH.001', 1, '2024-07-01', 'ZWOLLE-001', 100, 10, '2024-07-01', null);
+INSERT INTO warehouse_generation(businessUnitCode, generation, validFrom, location, capacity, stock, createdAt, archivedAt)
+VALUES ('MWH.012', 1, '2023-07-01', 'AMSTERDAM-001', 50, 5, '2023-07-01', null);
+INSERT INTO warehouse_generation(businessUnitCode, generation, validFrom, location, capacity, stock, createdAt, archivedAt)
+VALUES ('MWH.023', 1, '2021-02-01', 'TILBURG-001', 30, 27, '2021-02-01', null);
+
+INSERT INTO location_occupancy(location, activeWarehouses, totalCapacity, totalStock) VALUES ('ZWOLLE-001', 1, 100, 10);
+INSERT INTO location_occupancy(location, activeWarehouses, totalCapacity, totalStock) VALUES ('AMSTERDAM-001', 1, 50, 5);
+INSERT INTO location_occupancy(location, activeWarehouses, totalCapacity, totalStock) VALUES ('TILBURG-001', 1, 30, 27);
@@ -0,0 +1,120 @@
+package com.fulfilment.application.monolith;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.stores.StoreOutboxDispatcher;
+import com.fulfilment.application.monolith.stores.StoreOutboxEntry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.virtual.threads.VirtualThreads;
+import jakarta.inject.Inject;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+// Runs the endpoints and the legacy sync on virtual threads and fails if any of them pinned its
+// carrier thread, e.g. by blocking inside a synchronized block. Pinning is only reported from
+// JDK 21 on. The dispatcher is scheduled on the worker pool, its runs are made here on virtual
+// threads to check the legacy sync path.
+@QuarkusTest
+@TestProfile(VirtualThreadPinningTest.VirtualThreadsProfile.class)
+@EnabledForJreRange(min = JRE.JAVA_21)
+public class VirtualThreadPinningTest {
+
+  private static final String PINNED = "jdk.VirtualThreadPinned";
+
+  private static final String STARTED = "jdk.VirtualThreadStart";
+
+  private static final int CLIENTS = 64;
+
+  @Inject StoreOutboxDispatcher dispatcher;
+
+  @Inject @VirtualThreads ExecutorService virtualThreads;
+
+  public static class VirtualThreadsProfile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+      return Map.of("quarkus.virtual-threads.enabled", "true");
+    }
+  }
+
+  @Test
+  public void testRequestsAndLegacySyncDoNotPinCarrierThreads() throws Exception {
+    try (Recording recording = new Recording()) {
+      recording.enable(PINNED).withThreshold(Duration.ZERO).withStackTrace();
+      recording.enable(STARTED);
+      recording.start();
+
+      ExecutorService clients = Executors.newFixedThreadPool(16);
+      try {
+        List<Future<?>> requests = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+          String name = "PINNING-" + i;
+          requests.add(clients.submit(() -> sendRequests(name)));
+        }
+        for (Future<?> request : requests) {
+          request.get();
+        }
+      } finally {
+        clients.shutdown();
+      }
+      // the dispatcher hands the new stores to the legacy system
+      drainOutbox();
+
+      recording.stop();
+      Path dump = Files.createTempFile("pinning", ".jfr");
+      try {
+        recording.dump(dump);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        // every request of every client was served on a virtual thread of its own
+        long started = events.stream().filter(event -> isA(event, STARTED)).count();
+        assertTrue(started >= CLIENTS * 4, () -> "Only " + started + " virtual threads started");
+        List<RecordedEvent> pinned = events.stream().filter(event -> isA(event, PINNED)).toList();
+        assertTrue(pinned.isEmpty(), () -> "Carrier threads were pinned: " + pinned);
+      } finally {
+        Files.deleteIfExists(dump);
+      }
+    }
+  }
+
+  private static void sendRequests(String storeName) {
+    given()
+        .contentType("application/json")
+        .body("{\"name\":\"" + storeName + "\",\"quantityProductsInStock\":1}")
+        .when()
+        .post("store")
+        .then()
+        .statusCode(201);
+    given().when().get("store").then().statusCode(200);
+    given().when().get("product").then().statusCode(200);
+    given().when().get("warehouse?limit=10").then().statusCode(200);
+  }
+
+  private void drainOutbox() throws Exception {
+    long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+    while (QuarkusTransaction.requiringNew().call(() -> StoreOutboxEntry.count()) > 0) {
+      assertTrue(System.nanoTime() < deadline, "The outbox was not drained in time");
+      virtualThreads.submit(dispatcher::dispatch).get();
+    }
+  }
+
+  private static boolean isA(RecordedEvent event, String type) {
+    return event.getEventType().getName().equals(type);
+  }
+}
@@ -0,0 +1,205 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.response.ValidatableResponse;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class FulfilmentEndpointTest {
+
+  private static final String PATH = "fulfilment";
+
+  @Inject WarehouseStore warehouseStore;
+
+  @Test
+  public void testProductIsFulfilledByAtMostTwoWarehousesPerStore() {
+    long product = product("FUL-PRODUCT-A");
+    long store = store("FUL-STORE-A");
+    warehouses("FUL.A01", "FUL.A02", "FUL.A03");
+
+    assign(product, store, "FUL.A01").statusCode(201);
+    assign(product, store, "FUL.A02").statusCode(201);
+    assign(product, store, "FUL.A01")
+        .statusCode(422)
+        .body(containsString("already fulfils product"));
+    assign(product, store, "FUL.A03")
+        .statusCode(422)
+        .body(containsString("already fulfilled by 2 warehouses"));
+
+    given()
+        .when()
+        .get(PATH + "?productId=" + product + "&storeId=" + store)
+        .then()
+        .statusCode(200)
+        .body("warehouseBusinessUnitCode", contains("FUL.A01", "FUL.A02"));
+  }
+
+  @Test
+  public void testStoreIsFulfilledByAtMostThreeWarehouses() {
+    long store = store("FUL-STORE-B");
+    List<Long> products = new ArrayList<>();
+    for (int i = 1; i <= 4; i++) {
+      products.add(product("FUL-PRODUCT-B" + i));
+    }
+    warehouses("FUL.B01", "FUL.B02", "FUL.B03", "FUL.B04");
+
+    assign(products.get(0), store, "FUL.B01").statusCode(201);
+    assign(products.get(1), store, "FUL.B02").statusCode(201);
+    assign(products.get(2), store, "FUL.B03").statusCode(201);
+    assign(products.get(3), store, "FUL.B04")
+        .statusCode(422)
+        .body(containsString("already fulfilled by 3 warehouses"));
+    // a warehouse already fulfilling the store does not count twice
+    assign(products.get(3), store, "FUL.B01").statusCode(201);
+  }
+
+  @Test
+  public void testWarehouseStoresAtMostFiveProductTypesInBatch() {
+    long store = store("FUL-STORE-C");
+    warehouses("FUL.C01");
+    StringBuilder units = new StringBuilder("[");
+    for (int i = 1; i <= 6; i++) {
+      units.append(i > 1 ? "," : "").append(unit(product("FUL-PRODUCT-C" + i), store, "FUL.C01"));
+    }
+    units.append("]");
+
+    given()
+        .contentType("application/json")
+        .body(units.toString())
+        .when()
+        .post(PATH + "/batch")
+        .then()
+        .statusCode(200)
+        .body("code", contains(201, 201, 201, 201, 201, 422))
+        .body("[5].error", containsString("already stores 5 types of products"));
+
+    given()
+        .when()
+        .get(PATH + "?warehouse=FUL.C01")
+        .then()
+        .statusCode(200)
+        .body("$", hasSize(5));
+  }
+
+  @Test
+  public void testRemovedUnitsAreReleased() {
+    long product = product("FUL-PRODUCT-D");
+    long store = store("FUL-STORE-D");
+    warehouses("FUL.D01", "FUL.D02", "FUL.D03");
+
+    int id = assign(product, store, "FUL.D01").statusCode(201).extract().path("id");
+    assign(product, store, "FUL.D02").statusCode(201);
+
+    given().when().delete(PATH + "/" + id).then().statusCode(204);
+    assign(product, store, "FUL.D03").statusCode(201);
+
+    // the units of a deleted product go with it
+    given().when().delete("product/" + product).then().statusCode(204);
+    given().when().get(PATH + "?storeId=" + store).then().statusCode(200).body("$", hasSize(0));
+  }
+
+  @Test
+  public void testUnknownWarehouseIsRejected() {
+    long product = product("FUL-PRODUCT-E");
+    long store = store("FUL-STORE-E");
+
+    assign(product, store, "FUL.UNKNOWN")
+        .statusCode(422)
+        .body(containsString("'FUL.UNKNOWN' does not exist"));
+  }
+
+  @Test
+  public void testRoutesAreOrderedByFreeCapacityAndSkipArchivedWarehouses() {
+    long product = product("FUL-PRODUCT-F");
+    long store = store("FUL-STORE-F");
+    warehouse("FUL.F01", 40, 30);
+    warehouse("FUL.F02", 40, 10);
+
+    assign(product, store, "FUL.F01").statusCode(201);
+    assign(product, store, "FUL.F02").statusCode(201);
+    given()
+        .when()
+        .get(PATH + "/routes?productId=" + product + "&storeId=" + store)
+        .then()
+        .statusCode(200)
+        .body("warehouseBusinessUnitCode", contains("FUL.F02", "FUL.F01"))
+        .body("freeCapacity", contains(30, 10));
+
+    given().when().delete("warehouse/FUL.F02").then().statusCode(204);
+    given()
+        .when()
+        .get(PATH + "/routes?productId=" + product + "&storeId=" + store)
+        .then()
+        .statusCode(200)
+        .body("warehouseBusinessUnitCode", contains("FUL.F01"));
+  }
+
+  private static ValidatableResponse assign(long productId, long storeId, String warehouse) {
+    return given()
+        .contentType("application/json")
+        .body(unit(productId, storeId, warehouse))
+        .when()
+        .post(PATH)
+        .then();
+  }
+
+  private static String unit(long productId, long storeId, String warehouse) {
+    return "{\"productId\":"
+        + productId
+        + ",\"storeId\":"
+        + storeId
+        + ",\"warehouseBusinessUnitCode\":\""
+        + warehouse
+        + "\"}";
+  }
+
+  private static long product(String name) {
+    return create("product", name);
+  }
+
+  private static long store(String name) {
+    return create("store", name);
+  }
+
+  private static long create(String path, String name) {
+    int id =
+        given()
+            .contentType("application/json")
+            .body("{\"name\":\"" + name + "\"}")
+            .when()
+            .post(path)
+            .then()
+            .statusCode(201)
+            .extract()
+            .path("id");
+    return id;
+  }
+
+  // stored directly, outside of the locations used by the warehouse tests: the limits of the
+  // locations are not what is tested here
+  private void warehouses(String... businessUnitCodes) {
+    for (String businessUnitCode : businessUnitCodes) {
+      warehouse(businessUnitCode, 10, 0);
+    }
+  }
+
+  private void warehouse(String businessUnitCode, int capacity, int stock) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = businessUnitCode;
+    warehouse.location = "FULFILMENT-TEST";
+    warehouse.capacity = capacity;
+    warehouse.stock = stock;
+    QuarkusTransaction.requiringNew().run(() -> warehouseStore.create(warehouse));
+  }
+}
@@ -0,0 +1,55 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class FulfilmentRoutingTableTest {
+
+  @Test
+  public void testReplacementReordersTheRoutesOfTheWarehouse() {
+    FulfilmentRoutingTable routingTable = new FulfilmentRoutingTable();
+    routingTable.rebuild(
+        List.of(
+            new FulfilmentUnit(1L, 1L, "MWH.A"),
+            new FulfilmentUnit(1L, 1L, "MWH.B"),
+            new FulfilmentUnit(2L, 1L, "MWH.A")),
+        List.of(warehouse("MWH.A", 50, 10), warehouse("MWH.B", 50, 20)));
+    assertEquals(List.of("MWH.A", "MWH.B"), codes(routingTable.routes(1L, 1L)));
+
+    routingTable.onWarehouseChange(
+        new WarehouseChange(WarehouseChange.Type.REPLACED, warehouse("MWH.A", 50, 45)));
+
+    assertEquals(List.of("MWH.B", "MWH.A"), codes(routingTable.routes(1L, 1L)));
+    assertEquals(5, routingTable.routes(2L, 1L).get(0).freeCapacity());
+  }
+
+  @Test
+  public void testArchivedWarehousesAreNotRouted() {
+    FulfilmentRoutingTable routingTable = new FulfilmentRoutingTable();
+    routingTable.rebuild(
+        List.of(new FulfilmentUnit(1L, 1L, "MWH.A")), List.of(warehouse("MWH.A", 50, 10)));
+
+    routingTable.onWarehouseChange(
+        new WarehouseChange(WarehouseChange.Type.ARCHIVED, warehouse("MWH.A", 50, 10)));
+
+    assertEquals(List.of(), routingTable.routes(1L, 1L));
+    assertEquals(List.of(), routingTable.routes(3L, 3L));
+  }
+
+  private static List<String> codes(List<FulfilmentRoute> routes) {
+    return routes.stream().map(FulfilmentRoute::warehouseBusinessUnitCode).toList();
+  }
+
+  private static Warehouse warehouse(String businessUnitCode, int capacity, int stock) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = businessUnitCode;
+    warehouse.location = "AMSTERDAM-001";
+    warehouse.capacity = capacity;
+    warehouse.stock = stock;
+    return warehouse;
+  }
+}
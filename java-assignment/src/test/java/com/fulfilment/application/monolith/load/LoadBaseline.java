@@ -0,0 +1,150 @@
+package com.fulfilment.application.monolith.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import org.HdrHistogram.Histogram;
+
+// Compares the p99 latency of every endpoint of a scenario against load-baseline.properties and
+// writes the measured figures to target/load-results, in the same format, so that a run on the
+// reference machine can be copied over the baseline.
+//
+// An endpoint without a baseline fails the run as well: a regression check that can silently
+// check nothing is no check. -Dload.record-baseline=true only records the figures, to measure a
+// new baseline. The tolerated regression is -Dload.p99-tolerance, a factor of the baseline (1.5
+// by default, i.e. 50% slower: the p99 of a single run varies that much on a shared machine).
+public class LoadBaseline {
+
+  private static final String BASELINE_RESOURCE = "/load-baseline.properties";
+
+  private static final Path RESULTS_DIRECTORY = Path.of("target", "load-results");
+
+  private final Properties baseline;
+
+  private final double tolerance;
+
+  // only record the figures, without checking them
+  private final boolean recording;
+
+  public LoadBaseline(Properties baseline, double tolerance, boolean recording) {
+    this.baseline = baseline;
+    this.tolerance = tolerance;
+    this.recording = recording;
+  }
+
+  public static LoadBaseline load() throws IOException {
+    Properties baseline = new Properties();
+    try (InputStream input = LoadBaseline.class.getResourceAsStream(BASELINE_RESOURCE)) {
+      if (input != null) {
+        baseline.load(input);
+      }
+    }
+    return new LoadBaseline(
+        baseline,
+        Double.parseDouble(System.getProperty("load.p99-tolerance", "1.5")),
+        Boolean.getBoolean("load.record-baseline"));
+  }
+
+  // Records the result and fails the scenario on an unexpected response or a regression
+  public static void assertWithinBaseline(String scenario, LoadDriver.Result result)
+      throws IOException {
+    List<String> regressions = load().check(scenario, result);
+    assertEquals(0, result.totalFailures(), "Unexpected responses: " + result.failures);
+    assertTrue(regressions.isEmpty(), String.join("\n", regressions));
+  }
+
+  // Records the result and returns one message per endpoint whose p99 regressed or has no
+  // baseline, the run passes when there are none
+  public List<String> check(String scenario, LoadDriver.Result result) throws IOException {
+    record(scenario, result);
+    List<String> regressions = new ArrayList<>();
+    if (recording) {
+      return regressions;
+    }
+    for (String endpoint : result.histograms.keySet()) {
+      String value = baseline.getProperty(p99Key(scenario, endpoint));
+      if (value == null) {
+        regressions.add(
+            String.format(
+                Locale.ROOT,
+                "%s %s: no %s in load-baseline.properties, record one with"
+                    + " -Dload.record-baseline=true",
+                scenario,
+                endpoint,
+                p99Key(scenario, endpoint)));
+        continue;
+      }
+      double allowed = Double.parseDouble(value) * tolerance;
+      double measured = result.p99Millis(endpoint);
+      if (measured > allowed) {
+        regressions.add(
+            String.format(
+                Locale.ROOT,
+                "%s %s: p99 %.1f ms exceeds %.1f ms (baseline %s ms x %.2f)",
+                scenario,
+                endpoint,
+                measured,
+                allowed,
+                value,
+                tolerance));
+      }
+    }
+    return regressions;
+  }
+
+  private static void record(String scenario, LoadDriver.Result result) throws IOException {
+    Files.createDirectories(RESULTS_DIRECTORY);
+    Properties measured = new Properties();
+    PrintStream console = System.out;
+    console.printf(Locale.ROOT, "%s (%d s)%n", scenario, result.duration.toSeconds());
+    for (Map.Entry<String, Histogram> entry : result.histograms.entrySet()) {
+      String endpoint = entry.getKey();
+      Histogram histogram = entry.getValue();
+      measured.setProperty(
+          p99Key(scenario, endpoint),
+          String.format(Locale.ROOT, "%.1f", result.p99Millis(endpoint)));
+      measured.setProperty(
+          scenario + "." + endpoint + ".throughput",
+          String.format(Locale.ROOT, "%.1f", result.throughput(endpoint)));
+      console.printf(
+          Locale.ROOT,
+          "  %-24s %8d req %9.1f req/s  p50 %7.1f ms  p99 %7.1f ms  max %7.1f ms  failures %d%n",
+          endpoint,
+          histogram.getTotalCount(),
+          result.throughput(endpoint),
+          histogram.getValueAtPercentile(50.0) / 1000.0,
+          result.p99Millis(endpoint),
+          histogram.getMaxValue() / 1000.0,
+          result.failures.getOrDefault(endpoint, 0L));
+
+      try (PrintStream percentiles =
+          new PrintStream(
+              Files.newOutputStream(RESULTS_DIRECTORY.resolve(scenario + "." + endpoint + ".hgrm")),
+              false,
+              StandardCharsets.UTF_8)) {
+        // the histograms hold microseconds, the distribution is printed in milliseconds
+        histogram.outputPercentileDistribution(percentiles, 1000.0);
+      }
+    }
+    try (Writer writer =
+        Files.newBufferedWriter(RESULTS_DIRECTORY.resolve(scenario + ".properties"))) {
+      measured.store(writer, "Measured by the load suite, p99 in milliseconds");
+    }
+  }
+
+  private static String p99Key(String scenario, String endpoint) {
+    return scenario + "." + endpoint + ".p99-ms";
+  }
+}
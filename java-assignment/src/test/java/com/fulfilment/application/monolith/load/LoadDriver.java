@@ -0,0 +1,259 @@
+package com.fulfilment.application.monolith.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.HdrHistogram.Histogram;
+
+// Runs a mix of weighted steps from a fixed number of closed-loop clients for a fixed duration.
+// Every client records into its own histograms, one per endpoint, which are merged once the run is
+// over, so the clients never contend on the recording.
+public class LoadDriver {
+
+  private static final int SIGNIFICANT_DIGITS = 3;
+
+  private final String baseUrl;
+
+  private final List<WeightedStep> steps = new ArrayList<>();
+
+  private int totalWeight;
+
+  public LoadDriver(String baseUrl) {
+    this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+  }
+
+  public LoadDriver step(int weight, Step step) {
+    if (weight < 1) {
+      throw new IllegalArgumentException("Step weight must be positive.");
+    }
+    steps.add(new WeightedStep(totalWeight += weight, step));
+    return this;
+  }
+
+  public Result run(int clients, Duration duration) throws Exception {
+    return run(clients, Duration.ZERO, duration);
+  }
+
+  // Runs the mix for warmup, then for duration: only the latter is measured, so that neither the
+  // JIT compilation nor the filling of the pools and caches lands in the figures
+  public Result run(int clients, Duration warmup, Duration duration) throws Exception {
+    if (steps.isEmpty()) {
+      throw new IllegalStateException("No steps to run.");
+    }
+    HttpClient httpClient =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    long measuredFrom = System.nanoTime() + warmup.toNanos();
+    long deadline = measuredFrom + duration.toNanos();
+
+    ExecutorService executor = Executors.newFixedThreadPool(clients);
+    List<Future<LoadClient>> results = new ArrayList<>(clients);
+    try {
+      for (int i = 0; i < clients; i++) {
+        LoadClient client = new LoadClient(httpClient, baseUrl, i);
+        results.add(executor.submit(() -> drive(client, measuredFrom, deadline)));
+      }
+      Result result = new Result(duration);
+      for (Future<LoadClient> future : results) {
+        result.merge(future.get());
+      }
+      return result;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private LoadClient drive(LoadClient client, long measuredFrom, long deadline) {
+    boolean measuring = false;
+    long now;
+    while ((now = System.nanoTime()) < deadline) {
+      if (!measuring && now >= measuredFrom) {
+        client.reset();
+        measuring = true;
+      }
+      try {
+        pick(client.random.nextInt(totalWeight)).run(client);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (Exception e) {
+        client.errors++;
+      }
+    }
+    return client;
+  }
+
+  private Step pick(int roll) {
+    for (WeightedStep weighted : steps) {
+      if (roll < weighted.cumulativeWeight) {
+        return weighted.step;
+      }
+    }
+    throw new IllegalStateException("Roll " + roll + " is out of range.");
+  }
+
+  @FunctionalInterface
+  public interface Step {
+
+    void run(LoadClient client) throws Exception;
+  }
+
+  private static final class WeightedStep {
+
+    final int cumulativeWeight;
+
+    final Step step;
+
+    WeightedStep(int cumulativeWeight, Step step) {
+      this.cumulativeWeight = cumulativeWeight;
+      this.step = step;
+    }
+  }
+
+  // The state of one client: its own random sequence, request counter and the warehouses it
+  // created and has not archived yet, so that concurrent clients never touch each other's data
+  public static final class LoadClient {
+
+    public final Random random;
+
+    public final Deque<String> ownedCodes = new ArrayDeque<>();
+
+    private final HttpClient httpClient;
+
+    private final String baseUrl;
+
+    private final int id;
+
+    private final Map<String, Histogram> histograms = new HashMap<>();
+
+    private final Map<String, long[]> failures = new HashMap<>();
+
+    private long sequence;
+
+    private long errors;
+
+    LoadClient(HttpClient httpClient, String baseUrl, int id) {
+      this.httpClient = httpClient;
+      this.baseUrl = baseUrl;
+      this.id = id;
+      this.random = new Random(id);
+    }
+
+    // forgets what was recorded during the warmup, the warehouses created are kept
+    void reset() {
+      histograms.clear();
+      failures.clear();
+      errors = 0;
+    }
+
+    // unique across the clients of a run, and short enough for a business unit code
+    public String nextCode(String prefix) {
+      return prefix + "." + id + "." + sequence++;
+    }
+
+    public int get(String endpoint, String path, int... expectedStatuses) throws Exception {
+      return send(endpoint, request(path).GET().build(), expectedStatuses);
+    }
+
+    public int post(String endpoint, String path, String json, int... expectedStatuses)
+        throws Exception {
+      return send(endpoint, request(path).POST(body(json)).build(), expectedStatuses);
+    }
+
+    public int patch(String endpoint, String path, String json, int... expectedStatuses)
+        throws Exception {
+      return send(endpoint, request(path).method("PATCH", body(json)).build(), expectedStatuses);
+    }
+
+    public int delete(String endpoint, String path, int... expectedStatuses) throws Exception {
+      return send(endpoint, request(path).DELETE().build(), expectedStatuses);
+    }
+
+    // Times the request into the histogram of the endpoint. A status outside the expected ones
+    // counts as a failure of the endpoint and is left out of its latencies.
+    private int send(String endpoint, HttpRequest request, int... expectedStatuses)
+        throws Exception {
+      long start = System.nanoTime();
+      HttpResponse<Void> response =
+          httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+      long elapsedMicros = (System.nanoTime() - start) / 1_000;
+      int status = response.statusCode();
+      for (int expected : expectedStatuses) {
+        if (status == expected) {
+          histograms
+              .computeIfAbsent(endpoint, ignored -> new Histogram(SIGNIFICANT_DIGITS))
+              .recordValue(elapsedMicros);
+          return status;
+        }
+      }
+      failures.computeIfAbsent(endpoint, ignored -> new long[1])[0]++;
+      return status;
+    }
+
+    private HttpRequest.Builder request(String path) {
+      return HttpRequest.newBuilder(URI.create(baseUrl + path))
+          .timeout(Duration.ofSeconds(30))
+          .header("Content-Type", "application/json")
+          .header("Accept", "application/json");
+    }
+
+    private static HttpRequest.BodyPublisher body(String json) {
+      return HttpRequest.BodyPublishers.ofString(json);
+    }
+  }
+
+  // Latencies in microseconds and failures per endpoint, over all the clients of a run
+  public static final class Result {
+
+    public final Duration duration;
+
+    public final Map<String, Histogram> histograms = new TreeMap<>();
+
+    public final Map<String, Long> failures = new TreeMap<>();
+
+    public long errors;
+
+    Result(Duration duration) {
+      this.duration = duration;
+    }
+
+    void merge(LoadClient client) {
+      client.histograms.forEach(
+          (endpoint, histogram) ->
+              histograms
+                  .computeIfAbsent(endpoint, ignored -> new Histogram(SIGNIFICANT_DIGITS))
+                  .add(histogram));
+      client.failures.forEach((endpoint, count) -> failures.merge(endpoint, count[0], Long::sum));
+      errors += client.errors;
+    }
+
+    public double throughput(String endpoint) {
+      Histogram histogram = histograms.get(endpoint);
+      long count = histogram != null ? histogram.getTotalCount() : 0;
+      return count / (duration.toMillis() / 1000.0);
+    }
+
+    public double p99Millis(String endpoint) {
+      return histograms.get(endpoint).getValueAtPercentile(99.0) / 1000.0;
+    }
+
+    public long totalFailures() {
+      return failures.values().stream().mapToLong(Long::longValue).sum() + errors;
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.fulfilment.application.monolith.load;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+import java.util.List;
+import java.util.Map;
+
+public class LoadTestProfile implements QuarkusTestProfile {
+
+  @Override
+  public Map<String, String> getConfigOverrides() {
+    // read when the application is built, before EmbeddedPostgresResource is started: without them
+    // dev services would look for a container runtime to start a database of their own
+    return Map.of(
+        "quarkus.datasource.db-kind", "postgresql",
+        "quarkus.datasource.devservices.enabled", "false");
+  }
+
+  @Override
+  public List<TestResourceEntry> testResources() {
+    return List.of(new TestResourceEntry(EmbeddedPostgresResource.class));
+  }
+}
@@ -0,0 +1,55 @@
+package com.fulfilment.application.monolith.load;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import java.net.URL;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+// The same mix of blocking endpoints, run once on the worker pool and once on virtual threads, so
+// that the two modes can be compared from the figures of target/load-results:
+//
+//   ./mvnw -Pload-test test -Dtest='*ThreadingModeLoadTest' -Dload.clients=200
+//
+// Both scenarios warm up before they are measured, so that the mode run first is not measured on
+// a cold JVM, and are checked against load-baseline.properties like the other load tests.
+public abstract class ThreadingModeLoadTestBase {
+
+  private static final String[] STORES = {"TONSTAD", "KALLAX", "BESTÅ"};
+
+  @TestHTTPResource("/")
+  URL baseUrl;
+
+  // the scenario the figures are recorded under
+  protected abstract String scenario();
+
+  @Test
+  public void blockingEndpoints() throws Exception {
+    LoadDriver driver =
+        new LoadDriver(baseUrl.toString())
+            .step(25, client -> client.get("store-list", "/store", 200))
+            .step(25, client -> client.get("product-list", "/product", 200))
+            .step(25, client -> client.get("warehouse-list", "/warehouse?limit=50", 200))
+            .step(
+                25,
+                client -> {
+                  // writes go to the database on every request, past the second-level cache
+                  int id = 1 + client.random.nextInt(STORES.length);
+                  client.patch(
+                      "store-patch",
+                      "/store/" + id,
+                      "{\"name\":\""
+                          + STORES[id - 1]
+                          + "\",\"quantityProductsInStock\":"
+                          + client.random.nextInt(100)
+                          + "}",
+                      200);
+                });
+
+    LoadBaseline.assertWithinBaseline(
+        scenario(),
+        driver.run(
+            Integer.getInteger("load.clients", 32),
+            Duration.ofSeconds(Long.getLong("load.warmup", 5)),
+            Duration.ofSeconds(Long.getLong("load.duration", 20))));
+  }
+}
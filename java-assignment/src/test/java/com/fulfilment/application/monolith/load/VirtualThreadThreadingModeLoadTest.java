@@ -0,0 +1,33 @@
+package com.fulfilment.application.monolith.load;
+
+import static org.junit.jupiter.api.condition.JRE.JAVA_21;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+
+// the blocking endpoints on virtual threads, see VirtualThreadDispatch
+@QuarkusTest
+@TestProfile(VirtualThreadThreadingModeLoadTest.VirtualThreadProfile.class)
+@Tag("load")
+@EnabledForJreRange(min = JAVA_21)
+public class VirtualThreadThreadingModeLoadTest extends ThreadingModeLoadTestBase {
+
+  public static class VirtualThreadProfile extends LoadTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+      Map<String, String> overrides = new HashMap<>(super.getConfigOverrides());
+      overrides.put("quarkus.virtual-threads.enabled", "true");
+      return overrides;
+    }
+  }
+
+  @Override
+  protected String scenario() {
+    return "virtual-threads";
+  }
+}
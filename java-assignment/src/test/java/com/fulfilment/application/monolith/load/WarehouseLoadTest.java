@@ -0,0 +1,170 @@
+package com.fulfilment.application.monolith.load;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import java.net.URL;
+import java.time.Duration;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// Load scenarios against the real endpoints and PostgreSQL, excluded from the default build:
+//
+//   ./mvnw -Pload-test test -Dload.duration=60 -Dload.clients=64
+//
+// Every scenario runs for -Dload.warmup seconds (5 by default) before it is measured, and fails
+// when an endpoint returns an unexpected status or when its p99 regressed beyond the tolerance of
+// load-baseline.properties, see LoadBaseline.
+@QuarkusTest
+@TestProfile(LoadTestProfile.class)
+@Tag("load")
+public class WarehouseLoadTest {
+
+  private static final String[] LOCATIONS = {"AMSTERDAM-001", "ZWOLLE-001", "TILBURG-001"};
+
+  // the locations with the tightest limits, where most creations end in a rejection
+  private static final String[] CONSTRAINED_LOCATIONS = {
+    "AMSTERDAM-002", "EINDHOVEN-001", "ZWOLLE-002", "HELMOND-001"
+  };
+
+  private static final String[] STORES = {"TONSTAD", "KALLAX", "BESTÅ"};
+
+  private static final int MAX_OWNED_WAREHOUSES = 2;
+
+  @TestHTTPResource("/")
+  URL baseUrl;
+
+  @Test
+  public void readHeavyListing() throws Exception {
+    LoadDriver driver =
+        new LoadDriver(baseUrl.toString())
+            .step(40, client -> client.get("warehouse-list", "/warehouse?limit=50", 200))
+            .step(
+                20,
+                client ->
+                    client.get(
+                        "warehouse-list-location",
+                        "/warehouse?location=" + pick(client, LOCATIONS),
+                        200))
+            .step(20, client -> client.get("warehouse-get", "/warehouse/MWH.012", 200))
+            .step(10, client -> client.get("store-list", "/store", 200))
+            .step(10, client -> client.get("product-list", "/product", 200));
+
+    LoadBaseline.assertWithinBaseline("read-heavy", driver.run(clients(), warmup(), duration()));
+  }
+
+  @Test
+  public void warehouseChurnAtConstrainedLocations() throws Exception {
+    LoadDriver driver =
+        new LoadDriver(baseUrl.toString())
+            .step(
+                40,
+                client -> {
+                  String code = client.nextCode("LOAD");
+                  int status =
+                      client.post(
+                          "warehouse-create",
+                          "/warehouse",
+                          warehouseJson(code, locationOf(code), 20, 5),
+                          200,
+                          422);
+                  if (status == 200) {
+                    client.ownedCodes.addLast(code);
+                  }
+                  // keeps the locations from filling up for good
+                  if (client.ownedCodes.size() > MAX_OWNED_WAREHOUSES) {
+                    client.delete(
+                        "warehouse-archive", "/warehouse/" + client.ownedCodes.removeFirst(), 204);
+                  }
+                })
+            .step(
+                30,
+                client -> {
+                  String code = client.ownedCodes.peekLast();
+                  if (code == null) {
+                    client.get("warehouse-list", "/warehouse?limit=50", 200);
+                    return;
+                  }
+                  // the location stays the same, a larger capacity may not fit in it
+                  client.post(
+                      "warehouse-replace",
+                      "/warehouse/" + code + "/replacement",
+                      warehouseJson(code, locationOf(code), 20 + client.random.nextInt(5), 5),
+                      200,
+                      422);
+                })
+            .step(
+                30,
+                client -> {
+                  String code = client.ownedCodes.pollFirst();
+                  if (code == null) {
+                    client.get("warehouse-list", "/warehouse?limit=50", 200);
+                    return;
+                  }
+                  client.delete("warehouse-archive", "/warehouse/" + code, 204);
+                });
+
+    LoadBaseline.assertWithinBaseline("churn", driver.run(clients(), warmup(), duration()));
+  }
+
+  @Test
+  public void storePatchBursts() throws Exception {
+    LoadDriver driver =
+        new LoadDriver(baseUrl.toString())
+            .step(
+                70,
+                client -> {
+                  // a burst of updates of the same store, as a till would send them
+                  int id = 1 + client.random.nextInt(STORES.length);
+                  for (int i = 0; i < 5; i++) {
+                    client.patch(
+                        "store-patch",
+                        "/store/" + id,
+                        "{\"name\":\""
+                            + STORES[id - 1]
+                            + "\",\"quantityProductsInStock\":"
+                            + client.random.nextInt(100)
+                            + "}",
+                        200);
+                  }
+                })
+            .step(
+                20,
+                client ->
+                    client.get("store-get", "/store/" + (1 + client.random.nextInt(3)), 200))
+            .step(10, client -> client.get("store-list", "/store", 200));
+
+    LoadBaseline.assertWithinBaseline("store-patch", driver.run(clients(), warmup(), duration()));
+  }
+
+  // the location is derived from the code, so that a replacement keeps the location of the
+  // warehouse it replaces
+  private static String locationOf(String code) {
+    return CONSTRAINED_LOCATIONS[Math.floorMod(code.hashCode(), CONSTRAINED_LOCATIONS.length)];
+  }
+
+  private static String pick(LoadDriver.LoadClient client, String[] values) {
+    return values[client.random.nextInt(values.length)];
+  }
+
+  private static String warehouseJson(String code, String location, int capacity, int stock) {
+    return "{"
+        + "\"businessUnitCode\":\"" + code + "\","
+        + "\"location\":\"" + location + "\","
+        + "\"capacity\":" + capacity + ","
+        + "\"stock\":" + stock
+        + "}";
+  }
+
+  private static int clients() {
+    return Integer.getInteger("load.clients", 32);
+  }
+
+  private static Duration warmup() {
+    return Duration.ofSeconds(Long.getLong("load.warmup", 5));
+  }
+
+  private static Duration duration() {
+    return Duration.ofSeconds(Long.getLong("load.duration", 20));
+  }
+}
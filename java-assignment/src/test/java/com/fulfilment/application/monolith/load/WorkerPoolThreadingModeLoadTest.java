@@ -0,0 +1,17 @@
+package com.fulfilment.application.monolith.load;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Tag;
+
+// the blocking endpoints on the worker pool, the default
+@QuarkusTest
+@TestProfile(LoadTestProfile.class)
+@Tag("load")
+public class WorkerPoolThreadingModeLoadTest extends ThreadingModeLoadTestBase {
+
+  @Override
+  protected String scenario() {
+    return "worker-pool";
+  }
+}
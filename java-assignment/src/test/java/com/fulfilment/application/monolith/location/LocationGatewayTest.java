@@ -1,18 +1,101 @@
 package com.fulfilment.application.monolith.location;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class LocationGatewayTest {
 
+  @TempDir Path directory;
+
   @Test
   public void testWhenResolveExistingLocationShouldReturn() {
     // given
-    // LocationGateway locationGateway = new LocationGateway();
+    LocationGateway locationGateway = new LocationGateway();
+
+    // when
+    Location location = locationGateway.resolveByIdentifier("ZWOLLE-001");
+
+    // then
+    assertEquals(location.identification, "ZWOLLE-001");
+    assertEquals(1, location.maxNumberOfWarehouses);
+    assertEquals(40, location.maxCapacity);
+  }
+
+  @Test
+  public void testWhenResolveUnknownLocationShouldReturnNull() {
+    LocationGateway locationGateway = new LocationGateway();
+
+    assertNull(locationGateway.resolveByIdentifier("UNKNOWN-001"));
+    assertNull(locationGateway.resolveByIdentifier(null));
+  }
+
+  @Test
+  public void testWhenCatalogChangesShouldReload() throws Exception {
+    // given
+    Path catalog = directory.resolve("locations.csv");
+    Files.writeString(catalog, "ZWOLLE-001,1,40\n");
+    LocationGateway locationGateway = new LocationGateway();
+    locationGateway.catalogPath = Optional.of(catalog.toString());
+    locationGateway.loadCatalog();
+    assertNull(locationGateway.resolveByIdentifier("ZWOLLE-002"));
+
+    // when
+    Files.writeString(catalog, "# updated\nZWOLLE-001,2,60\nZWOLLE-002,2,50\n");
+    Files.setLastModifiedTime(catalog, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+    locationGateway.refresh();
+
+    // then
+    assertEquals(60, locationGateway.resolveByIdentifier("ZWOLLE-001").maxCapacity);
+    assertEquals(50, locationGateway.resolveByIdentifier("ZWOLLE-002").maxCapacity);
+  }
+
+  @Test
+  public void testWhenCatalogIsInvalidShouldKeepCurrent() throws Exception {
+    // given
+    Path catalog = directory.resolve("locations.csv");
+    Files.writeString(catalog, "ZWOLLE-001,1,40\n");
+    LocationGateway locationGateway = new LocationGateway();
+    locationGateway.catalogPath = Optional.of(catalog.toString());
+    locationGateway.loadCatalog();
+
+    // when
+    Files.writeString(catalog, "ZWOLLE-001,one,40\n");
+    Files.setLastModifiedTime(catalog, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+    locationGateway.refresh();
+
+    // then
+    assertEquals(40, locationGateway.resolveByIdentifier("ZWOLLE-001").maxCapacity);
+  }
+
+  @Test
+  public void testWhenCatalogIsInvalidAtStartupShouldKeepBundledUntilFixed() throws Exception {
+    // given
+    Path catalog = directory.resolve("locations.csv");
+    Files.writeString(catalog, "ZWOLLE-001,one,40\n");
+    LocationGateway locationGateway = new LocationGateway();
+    locationGateway.catalogPath = Optional.of(catalog.toString());
+
+    // when
+    locationGateway.loadCatalog();
+
+    // then
+    assertEquals(40, locationGateway.resolveByIdentifier("ZWOLLE-001").maxCapacity);
+    assertEquals(50, locationGateway.resolveByIdentifier("ZWOLLE-002").maxCapacity);
 
     // when
-    // Location location = locationGateway.resolveByIdentifier("ZWOLLE-001");
+    Files.writeString(catalog, "ZWOLLE-001,2,60\n");
+    locationGateway.refresh();
 
     // then
-    // assertEquals(location.identification, "ZWOLLE-001");
+    assertEquals(60, locationGateway.resolveByIdentifier("ZWOLLE-001").maxCapacity);
+    assertNull(locationGateway.resolveByIdentifier("ZWOLLE-002"));
   }
 }
@@ -2,6 +2,8 @@ package com.fulfilment.application.monolith.products;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.core.IsNot.not;
 
 import io.quarkus.test.junit.QuarkusTest;
@@ -33,4 +35,32 @@ public class ProductEndpointTest {
         .statusCode(200)
         .body(not(containsString("TONSTAD")), containsString("KALLAX"), containsString("BESTÅ"));
   }
+
+  @Test
+  public void testDescriptionIsOnlyListedWhenSelected() {
+    final String path = "product";
+    given()
+        .contentType("application/json")
+        .body("{\"name\":\"HEMNES\",\"description\":\"Chest of 8 drawers\",\"stock\":2}")
+        .when()
+        .post(path)
+        .then()
+        .statusCode(201);
+
+    given()
+        .when()
+        .get(path)
+        .then()
+        .statusCode(200)
+        .body("find { it.name == 'HEMNES' }", not(hasKey("description")));
+
+    given()
+        .when()
+        .get(path + "?fields=description")
+        .then()
+        .statusCode(200)
+        .body("find { it.name == 'HEMNES' }.description", equalTo("Chest of 8 drawers"));
+
+    given().when().get(path + "?fields=price").then().statusCode(400);
+  }
 }
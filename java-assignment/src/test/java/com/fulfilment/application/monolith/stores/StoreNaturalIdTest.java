@@ -0,0 +1,72 @@
+package com.fulfilment.application.monolith.stores;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class StoreNaturalIdTest {
+
+  @Inject SessionFactory sessionFactory;
+
+  @Test
+  public void testNameLookupIsServedFromTheSecondLevelCache() {
+    Statistics statistics = sessionFactory.getStatistics();
+    QuarkusTransaction.requiringNew().run(() -> Store.findByName("KALLAX"));
+
+    long statementsBefore = statistics.getPrepareStatementCount();
+    long hitsBefore = statistics.getNaturalIdCacheHitCount();
+    Store store = QuarkusTransaction.requiringNew().call(() -> Store.findByName("KALLAX"));
+
+    assertEquals(2L, store.id);
+    assertEquals(statementsBefore, statistics.getPrepareStatementCount());
+    assertTrue(statistics.getNaturalIdCacheHitCount() > hitsBefore);
+  }
+
+  @Test
+  public void testDuplicateNamesAreRejected() {
+    given()
+        .contentType("application/json")
+        .body("{\"name\":\"KALLAX\",\"quantityProductsInStock\":1}")
+        .when()
+        .post("store")
+        .then()
+        .statusCode(422)
+        .body(containsString("already exists"));
+
+    // keeping its own name is not a conflict
+    given()
+        .contentType("application/json")
+        .body("{\"name\":\"KALLAX\",\"quantityProductsInStock\":5}")
+        .when()
+        .patch("store/2")
+        .then()
+        .statusCode(200);
+  }
+
+  @Test
+  public void testCachedListingSeesNewStores() {
+    given().when().get("store").then().statusCode(200);
+    long hitsBefore = sessionFactory.getStatistics().getQueryCacheHitCount();
+    given().when().get("store").then().statusCode(200);
+    assertTrue(sessionFactory.getStatistics().getQueryCacheHitCount() > hitsBefore);
+
+    given()
+        .contentType("application/json")
+        .body("{\"name\":\"MALM\",\"quantityProductsInStock\":2}")
+        .when()
+        .post("store")
+        .then()
+        .statusCode(201);
+
+    given().when().get("store").then().statusCode(200).body(containsString("MALM"));
+  }
+}
@@ -0,0 +1,97 @@
+package com.fulfilment.application.monolith.stores;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class StoreOutboxDispatcherTest {
+
+  @Inject StoreOutboxDispatcher storeOutboxDispatcher;
+
+  @Inject MeterRegistry meterRegistry;
+
+  @Test
+  public void testStoreChangesAreDispatchedFromTheOutbox() {
+    Integer id =
+        given()
+            .contentType("application/json")
+            .body("{\"name\":\"HEMNES\",\"quantityProductsInStock\":7}")
+            .when()
+            .post("store")
+            .then()
+            .statusCode(201)
+            .extract()
+            .path("id");
+
+    given()
+        .contentType("application/json")
+        .body("{\"name\":\"HEMNES\",\"quantityProductsInStock\":8}")
+        .when()
+        .patch("store/" + id)
+        .then()
+        .statusCode(200);
+
+    // nothing reached the legacy system yet, both changes wait in the outbox in order
+    assertEquals(2, pendingChanges(id));
+
+    double coalescedBefore = meterRegistry.counter("store.outbox.coalesced").count();
+
+    storeOutboxDispatcher.dispatch();
+
+    assertEquals(0, pendingChanges(id));
+    // the creation and the update were sent as a single call
+    assertEquals(coalescedBefore + 1, meterRegistry.counter("store.outbox.coalesced").count());
+  }
+
+  @Test
+  public void testEntriesClaimedByAnotherInstanceAreLeftToIt() {
+    Integer id = createStore("BILLY");
+    // claimed by a dispatcher of another instance, still sending it
+    QuarkusTransaction.requiringNew()
+        .run(
+            () ->
+                StoreOutboxEntry.update(
+                    "claimedUntil = ?1 where storeId = ?2",
+                    LocalDateTime.now().plusMinutes(1),
+                    id.longValue()));
+
+    storeOutboxDispatcher.dispatch();
+    assertEquals(1, pendingChanges(id));
+
+    // taken over once the claim has expired
+    QuarkusTransaction.requiringNew()
+        .run(
+            () ->
+                StoreOutboxEntry.update(
+                    "claimedUntil = ?1 where storeId = ?2",
+                    LocalDateTime.now().minusSeconds(1),
+                    id.longValue()));
+
+    storeOutboxDispatcher.dispatch();
+    assertEquals(0, pendingChanges(id));
+  }
+
+  private static Integer createStore(String name) {
+    return given()
+        .contentType("application/json")
+        .body("{\"name\":\"" + name + "\",\"quantityProductsInStock\":1}")
+        .when()
+        .post("store")
+        .then()
+        .statusCode(201)
+        .extract()
+        .path("id");
+  }
+
+  private static long pendingChanges(Integer storeId) {
+    return QuarkusTransaction.requiringNew()
+        .call(() -> StoreOutboxEntry.count("storeId", storeId.longValue()));
+  }
+}
@@ -0,0 +1,53 @@
+package com.fulfilment.application.monolith.stores;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class StoreSyncCoalescerTest {
+
+  private long nextId = 1;
+
+  @Test
+  public void testUpdatesOfTheSameStoreAreMergedIntoTheLatestState() {
+    List<StoreSyncCommand> commands =
+        StoreSyncCoalescer.coalesce(
+            List.of(
+                entry(1L, StoreSyncOperation.UPDATE, 10),
+                entry(2L, StoreSyncOperation.UPDATE, 3),
+                entry(1L, StoreSyncOperation.UPDATE, 11),
+                entry(1L, StoreSyncOperation.UPDATE, 12)));
+
+    assertEquals(2, commands.size());
+    assertEquals(1L, commands.get(0).store.id);
+    assertEquals(StoreSyncOperation.UPDATE, commands.get(0).operation);
+    assertEquals(12, commands.get(0).store.quantityProductsInStock);
+    assertEquals(3, commands.get(0).entries.size());
+    assertEquals(2L, commands.get(1).store.id);
+    assertEquals(3, commands.get(1).store.quantityProductsInStock);
+  }
+
+  @Test
+  public void testCreationFollowedByUpdatesIsSentAsCreation() {
+    List<StoreSyncCommand> commands =
+        StoreSyncCoalescer.coalesce(
+            List.of(
+                entry(1L, StoreSyncOperation.CREATE, 10),
+                entry(1L, StoreSyncOperation.UPDATE, 11)));
+
+    assertEquals(1, commands.size());
+    assertEquals(StoreSyncOperation.CREATE, commands.get(0).operation);
+    assertEquals(11, commands.get(0).store.quantityProductsInStock);
+  }
+
+  private StoreOutboxEntry entry(Long storeId, StoreSyncOperation operation, int quantity) {
+    StoreOutboxEntry entry = new StoreOutboxEntry();
+    entry.id = nextId++;
+    entry.storeId = storeId;
+    entry.operation = operation;
+    entry.name = "STORE-" + storeId;
+    entry.quantityProductsInStock = quantity;
+    return entry;
+  }
+}
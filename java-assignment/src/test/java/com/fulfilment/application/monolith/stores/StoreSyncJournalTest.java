@@ -0,0 +1,99 @@
+package com.fulfilment.application.monolith.stores;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StoreSyncJournalTest {
+
+  @TempDir Path directory;
+
+  @Test
+  public void testAppendedRecordsAreReplayedInOrderAcrossSegments() throws IOException {
+    // small segments so that the records roll over to several files
+    try (StoreSyncJournal journal = new StoreSyncJournal(directory, 128, 100)) {
+      long position = 0;
+      for (int i = 0; i < 20; i++) {
+        position = journal.append(StoreSyncOperation.UPDATE, store((long) i, "STORE-" + i, i));
+      }
+      journal.commit(position);
+    }
+
+    List<Store> replayed = new ArrayList<>();
+    StoreSyncJournal.replay(directory, (operation, store) -> replayed.add(store));
+
+    assertEquals(20, replayed.size());
+    for (int i = 0; i < 20; i++) {
+      assertEquals(i, replayed.get(i).id);
+      assertEquals("STORE-" + i, replayed.get(i).name);
+      assertEquals(i, replayed.get(i).quantityProductsInStock);
+    }
+    try (Stream<Path> segments = Files.list(directory)) {
+      assertTrue(segments.count() > 1);
+    }
+  }
+
+  @Test
+  public void testReopenedJournalContinuesAfterTheExistingRecords() throws IOException {
+    try (StoreSyncJournal journal = new StoreSyncJournal(directory, 4096, 1)) {
+      journal.commit(journal.append(StoreSyncOperation.CREATE, store(1L, "TONSTAD", 10)));
+    }
+    try (StoreSyncJournal journal = new StoreSyncJournal(directory, 4096, 1)) {
+      journal.commit(journal.append(StoreSyncOperation.UPDATE, store(1L, "TONSTAD", 11)));
+    }
+
+    List<StoreSyncOperation> operations = new ArrayList<>();
+    List<Integer> quantities = new ArrayList<>();
+    StoreSyncJournal.replay(
+        directory,
+        (operation, store) -> {
+          operations.add(operation);
+          quantities.add(store.quantityProductsInStock);
+        });
+
+    assertEquals(List.of(StoreSyncOperation.CREATE, StoreSyncOperation.UPDATE), operations);
+    assertEquals(List.of(10, 11), quantities);
+  }
+
+  @Test
+  public void testOnlyTheRetainedSegmentsAreKept() throws IOException {
+    try (StoreSyncJournal journal = new StoreSyncJournal(directory, 128, 2)) {
+      long position = 0;
+      for (int i = 0; i < 20; i++) {
+        position = journal.append(StoreSyncOperation.UPDATE, store((long) i, "STORE-" + i, i));
+      }
+      journal.commit(position);
+    }
+    try (Stream<Path> segments = Files.list(directory)) {
+      assertEquals(2, segments.count());
+    }
+
+    // the oldest records went away with their segments, the latest ones are still replayed
+    List<Store> replayed = new ArrayList<>();
+    StoreSyncJournal.replay(directory, (operation, store) -> replayed.add(store));
+    assertTrue(replayed.size() < 20);
+    assertEquals(19, replayed.get(replayed.size() - 1).id);
+
+    // reopening with a smaller retention deletes the excess right away
+    try (StoreSyncJournal journal = new StoreSyncJournal(directory, 128, 1)) {
+      try (Stream<Path> segments = Files.list(directory)) {
+        assertEquals(1, segments.count());
+      }
+    }
+  }
+
+  private static Store store(Long id, String name, int quantity) {
+    Store store = new Store(name);
+    store.id = id;
+    store.quantityProductsInStock = quantity;
+    return store;
+  }
+}
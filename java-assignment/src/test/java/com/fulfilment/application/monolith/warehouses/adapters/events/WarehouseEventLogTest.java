@@ -0,0 +1,122 @@
+package com.fulfilment.application.monolith.warehouses.adapters.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import io.smallrye.mutiny.subscription.BackPressureFailure;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import org.junit.jupiter.api.Test;
+
+public class WarehouseEventLogTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  public void testSubscriberResumesAfterOffsetThenReceivesLiveEvents() {
+    WarehouseEventLog log = log(8, 8);
+    append(log, WarehouseChange.Type.CREATED, "EVT.001");
+    append(log, WarehouseChange.Type.REPLACED, "EVT.001");
+    append(log, WarehouseChange.Type.ARCHIVED, "EVT.001");
+
+    AssertSubscriber<WarehouseEvent> subscriber =
+        log.subscribe(1L).subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+    append(log, WarehouseChange.Type.CREATED, "EVT.002");
+
+    assertEquals(
+        List.of(2L, 3L, 4L),
+        subscriber.getItems().stream().map(WarehouseEvent::offset).toList());
+    assertEquals("EVT.002", subscriber.getItems().get(2).warehouse().businessUnitCode);
+  }
+
+  @Test
+  public void testOnlyRetainedOffsetsCanBeResumedFrom() {
+    WarehouseEventLog log = log(2, 8);
+    for (int i = 0; i < 5; i++) {
+      append(log, WarehouseChange.Type.CREATED, "EVT.10" + i);
+    }
+
+    // events 4 and 5 are retained
+    assertTrue(log.retains(3));
+    assertTrue(log.retains(5));
+    assertFalse(log.retains(2));
+    // offsets of a previous run of the application
+    assertFalse(log.retains(6));
+
+    log.subscribe(2L)
+        .subscribe()
+        .withSubscriber(AssertSubscriber.create(1))
+        .assertFailedWith(WarehouseEventLog.StaleOffsetException.class);
+  }
+
+  @Test
+  public void testSlowSubscriberIsEvicted() {
+    WarehouseEventLog log = log(16, 2);
+    AssertSubscriber<WarehouseEvent> slow =
+        log.subscribe(null).subscribe().withSubscriber(AssertSubscriber.create(0));
+    AssertSubscriber<WarehouseEvent> fast =
+        log.subscribe(null).subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+    for (int i = 0; i < 3; i++) {
+      append(log, WarehouseChange.Type.CREATED, "EVT.20" + i);
+    }
+
+    slow.assertFailedWith(BackPressureFailure.class);
+    assertEquals(3, fast.getItems().size());
+    assertEquals(1, log.subscriberCount());
+    assertEquals(1.0, meterRegistry.counter("warehouse.events.evictions").count());
+  }
+
+  @Test
+  public void testWritersDoNotWaitForTheSubscribers() {
+    ExecutorService delivery = Executors.newSingleThreadExecutor();
+    try {
+      WarehouseEventLog log = new WarehouseEventLog(8, 8, meterRegistry, delivery);
+      Semaphore released = new Semaphore(0);
+      AssertSubscriber<WarehouseEvent> blocked =
+          log.subscribe(null)
+              .onItem()
+              .invoke(event -> released.acquireUninterruptibly())
+              .subscribe()
+              .withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+      // the first event blocks the delivery thread, the writers go on
+      assertTimeoutPreemptively(
+          Duration.ofSeconds(5),
+          () -> {
+            append(log, WarehouseChange.Type.CREATED, "EVT.301");
+            append(log, WarehouseChange.Type.CREATED, "EVT.302");
+          });
+
+      released.release(2);
+      blocked.awaitItems(2);
+      assertEquals(
+          List.of(1L, 2L), blocked.getItems().stream().map(WarehouseEvent::offset).toList());
+    } finally {
+      delivery.shutdownNow();
+    }
+  }
+
+  // delivers on the appending thread, so that the subscribers have their events on return
+  private WarehouseEventLog log(int capacity, int subscriberBuffer) {
+    return new WarehouseEventLog(capacity, subscriberBuffer, meterRegistry, Runnable::run);
+  }
+
+  private static void append(WarehouseEventLog log, WarehouseChange.Type type, String code) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = code;
+    warehouse.location = "AMSTERDAM-001";
+    warehouse.capacity = 10;
+    warehouse.stock = 1;
+    log.append(new WarehouseChange(type, warehouse));
+  }
+}
@@ -0,0 +1,57 @@
+package com.fulfilment.application.monolith.warehouses.adapters.memory;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Test;
+
+// The application as packaged with -Dquarkus.profile=in-memory: without a datasource, only the
+// warehouse endpoints are served
+@QuarkusTest
+@TestProfile(InMemoryProfileTest.InMemoryProfile.class)
+public class InMemoryProfileTest {
+
+  public static class InMemoryProfile implements QuarkusTestProfile {
+
+    @Override
+    public String getConfigProfile() {
+      return "in-memory";
+    }
+  }
+
+  @Test
+  public void testWarehousesAreServedFromTheSeed() {
+    given()
+        .when()
+        .get("warehouse/MWH.001")
+        .then()
+        .statusCode(200)
+        .body(containsString("ZWOLLE-001"));
+
+    given()
+        .contentType("application/json")
+        .body(
+            "{\"businessUnitCode\":\"MEM.001\",\"location\":\"AMSTERDAM-001\","
+                + "\"capacity\":10,\"stock\":1}")
+        .when()
+        .post("warehouse")
+        .then()
+        .statusCode(200);
+    given().when().get("warehouse/MEM.001").then().statusCode(200);
+  }
+
+  @Test
+  public void testEndpointsBackedByTheDatabaseAreUnavailable() {
+    for (String path : new String[] {"store", "product", "fulfilment"}) {
+      given()
+          .when()
+          .get(path)
+          .then()
+          .statusCode(500)
+          .body(containsString("Hibernate ORM was deactivated"));
+    }
+  }
+}
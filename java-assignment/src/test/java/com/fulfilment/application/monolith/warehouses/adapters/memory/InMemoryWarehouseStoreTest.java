@@ -0,0 +1,192 @@
+package com.fulfilment.application.monolith.warehouses.adapters.memory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+
+public class InMemoryWarehouseStoreTest {
+
+  @Test
+  public void testIndexesFollowLocationChangesAndArchival() {
+    InMemoryWarehouseStore store = new InMemoryWarehouseStore();
+    store.createAll(
+        List.of(
+            warehouse("MWH.003", "ZWOLLE-001", 30, 3),
+            warehouse("MWH.001", "ZWOLLE-001", 10, 1),
+            warehouse("MWH.002", "AMSTERDAM-001", 20, 2)));
+
+    assertEquals(List.of("MWH.001", "MWH.003"), codes(store.findActiveByLocation("ZWOLLE-001")));
+    assertEquals(List.of("MWH.002", "MWH.003"), codes(store.findActive(null, "MWH.001", 10)));
+    assertEquals(List.of("MWH.001"), codes(store.findActive(null, null, 1)));
+    assertOccupancy(store.findOccupancyByLocation("ZWOLLE-001"), 2, 40, 4);
+
+    // moves to AMSTERDAM-001
+    store.update(warehouse("MWH.003", "AMSTERDAM-001", 35, 3));
+    assertEquals(List.of("MWH.001"), codes(store.findActiveByLocation("ZWOLLE-001")));
+    assertOccupancy(store.findOccupancyByLocation("ZWOLLE-001"), 1, 10, 1);
+    assertOccupancy(store.findOccupancyByLocation("AMSTERDAM-001"), 2, 55, 5);
+
+    Warehouse archived = warehouse("MWH.002", "AMSTERDAM-001", 20, 2);
+    archived.archivedAt = LocalDateTime.now();
+    store.update(archived);
+    assertEquals(List.of("MWH.003"), codes(store.findActiveByLocation("AMSTERDAM-001")));
+    assertOccupancy(store.findOccupancyByLocation("AMSTERDAM-001"), 1, 35, 3);
+    // still found by its business unit code and its id
+    assertNotNull(store.findByBusinessUnitCode("MWH.002").archivedAt);
+    assertEquals("MWH.002", store.findWarehouseById(3L).businessUnitCode);
+
+    store.remove(warehouse("MWH.001", null, null, null));
+    assertNull(store.findWarehouseById(2L));
+    assertOccupancy(store.findOccupancyByLocation("ZWOLLE-001"), 0, 0, 0);
+  }
+
+  @Test
+  public void testReadsReturnCopies() {
+    InMemoryWarehouseStore store = new InMemoryWarehouseStore();
+    store.create(warehouse("MWH.001", "ZWOLLE-001", 10, 1));
+
+    store.findByBusinessUnitCode("MWH.001").capacity = 99;
+
+    assertEquals(10, store.findByBusinessUnitCode("MWH.001").capacity);
+  }
+
+  @Test
+  public void testLookupForUpdateHoldsTheWarehouseUntilTheTransactionEnds() throws Exception {
+    ThreadTransactions transactions = new ThreadTransactions();
+    InMemoryWarehouseStore store = new InMemoryWarehouseStore(transactions);
+    store.create(warehouse("MWH.001", "ZWOLLE-001", 10, 1));
+
+    transactions.begin();
+    store.findByBusinessUnitCodeForUpdate("MWH.001");
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Integer> concurrent =
+          executor.submit(
+              () -> {
+                transactions.begin();
+                try {
+                  return store.findByBusinessUnitCodeForUpdate("MWH.001").capacity;
+                } finally {
+                  transactions.end();
+                }
+              });
+      assertThrows(TimeoutException.class, () -> concurrent.get(200, TimeUnit.MILLISECONDS));
+
+      store.update(warehouse("MWH.001", "ZWOLLE-001", 20, 1));
+      transactions.end();
+
+      // the concurrent lookup sees the state left by the transaction it waited for
+      assertEquals(20, concurrent.get(5, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testParseSeed() throws Exception {
+    List<Warehouse> warehouses =
+        InMemoryWarehouseStore.parse(
+            new StringReader("# comment\nMWH.001, ZWOLLE-001, 100, 10, 2024-07-01\n"));
+
+    assertEquals(1, warehouses.size());
+    assertEquals("ZWOLLE-001", warehouses.get(0).location);
+    assertEquals(LocalDateTime.of(2024, 7, 1, 0, 0), warehouses.get(0).createdAt);
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> InMemoryWarehouseStore.parse(new StringReader("MWH.001,ZWOLLE-001,100\n")));
+  }
+
+  private static void assertOccupancy(
+      LocationOccupancy occupancy, int activeWarehouses, int totalCapacity, int totalStock) {
+    assertEquals(activeWarehouses, occupancy.activeWarehouses);
+    assertEquals(totalCapacity, occupancy.totalCapacity);
+    assertEquals(totalStock, occupancy.totalStock);
+  }
+
+  private static List<String> codes(List<Warehouse> warehouses) {
+    return warehouses.stream().map(w -> w.businessUnitCode).toList();
+  }
+
+  private static Warehouse warehouse(
+      String businessUnitCode, String location, Integer capacity, Integer stock) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = businessUnitCode;
+    warehouse.location = location;
+    warehouse.capacity = capacity;
+    warehouse.stock = stock;
+    return warehouse;
+  }
+
+  // one transaction at a time per thread, enough for the locks of the store
+  private static final class ThreadTransactions implements TransactionSynchronizationRegistry {
+    private final ThreadLocal<Map<Object, Object>> resources = new ThreadLocal<>();
+
+    private final ThreadLocal<List<Synchronization>> synchronizations = new ThreadLocal<>();
+
+    void begin() {
+      resources.set(new HashMap<>());
+      synchronizations.set(new ArrayList<>());
+    }
+
+    void end() {
+      List<Synchronization> ended = synchronizations.get();
+      resources.remove();
+      synchronizations.remove();
+      ended.forEach(synchronization -> synchronization.afterCompletion(Status.STATUS_COMMITTED));
+    }
+
+    @Override
+    public Object getTransactionKey() {
+      return resources.get();
+    }
+
+    @Override
+    public void putResource(Object key, Object value) {
+      resources.get().put(key, value);
+    }
+
+    @Override
+    public Object getResource(Object key) {
+      return resources.get().get(key);
+    }
+
+    @Override
+    public void registerInterposedSynchronization(Synchronization synchronization) {
+      synchronizations.get().add(synchronization);
+    }
+
+    @Override
+    public int getTransactionStatus() {
+      return resources.get() != null ? Status.STATUS_ACTIVE : Status.STATUS_NO_TRANSACTION;
+    }
+
+    @Override
+    public void setRollbackOnly() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean getRollbackOnly() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.fulfilment.application.monolith.warehouses.adapters.metrics;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class MicrometerWarehouseOperationMetricsTest {
+
+  @Inject MeterRegistry meterRegistry;
+
+  @Test
+  public void testRejectionsAreCountedByReason() {
+    double invalidLocationsBefore = rejections("create", "invalid-location");
+    long rejectedBefore = timerCount("create", "rejected");
+
+    given()
+        .contentType("application/json")
+        .body(
+            "{\"businessUnitCode\":\"MET.001\",\"location\":\"NOWHERE-001\","
+                + "\"capacity\":10,\"stock\":1}")
+        .when()
+        .post("warehouse")
+        .then()
+        .statusCode(422);
+
+    assertEquals(invalidLocationsBefore + 1, rejections("create", "invalid-location"));
+    assertEquals(rejectedBefore + 1, timerCount("create", "rejected"));
+  }
+
+  @Test
+  public void testDuplicatesAreCountedApartFromOtherRejections() {
+    double duplicatesBefore = rejections("create", "duplicate-business-unit-code");
+    double invalidLocationsBefore = rejections("create", "invalid-location");
+
+    // MWH.001 is seeded by import.sql
+    given()
+        .contentType("application/json")
+        .body(
+            "{\"businessUnitCode\":\"MWH.001\",\"location\":\"AMSTERDAM-001\","
+                + "\"capacity\":10,\"stock\":1}")
+        .when()
+        .post("warehouse")
+        .then()
+        .statusCode(422);
+
+    assertEquals(duplicatesBefore + 1, rejections("create", "duplicate-business-unit-code"));
+    assertEquals(invalidLocationsBefore, rejections("create", "invalid-location"));
+  }
+
+  @Test
+  public void testMetricsAreScraped() {
+    given()
+        .when()
+        .get("q/metrics")
+        .then()
+        .statusCode(200)
+        .body(containsString("warehouse_operations_seconds_count"))
+        .body(containsString("warehouse_rejections_total"));
+  }
+
+  private double rejections(String operation, String reason) {
+    return meterRegistry
+        .get("warehouse.rejections")
+        .tag("operation", operation)
+        .tag("reason", reason)
+        .counter()
+        .count();
+  }
+
+  private long timerCount(String operation, String outcome) {
+    return meterRegistry
+        .get("warehouse.operations")
+        .tag("operation", operation)
+        .tag("outcome", outcome)
+        .timer()
+        .count();
+  }
+}
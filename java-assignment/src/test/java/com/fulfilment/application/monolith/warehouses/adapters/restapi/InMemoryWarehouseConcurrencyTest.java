@@ -0,0 +1,9 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+
+// the location locks of the in-memory store must admit exactly what the row locks admit
+@QuarkusTest
+@TestProfile(InMemoryWarehouseEndpointTest.InMemoryStoreProfile.class)
+public class InMemoryWarehouseConcurrencyTest extends WarehouseConcurrencyTestBase {}
@@ -0,0 +1,22 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import java.util.Map;
+
+// the endpoint suite against the in-memory store, seeded with the warehouses of import.sql
+@QuarkusTest
+@TestProfile(InMemoryWarehouseEndpointTest.InMemoryStoreProfile.class)
+public class InMemoryWarehouseEndpointTest extends WarehouseEndpointTestBase {
+
+  public static class InMemoryStoreProfile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+      return Map.of(
+          "warehouse.store.kind", "in-memory",
+          "warehouse.store.in-memory.seed", "warehouses.csv");
+    }
+  }
+}
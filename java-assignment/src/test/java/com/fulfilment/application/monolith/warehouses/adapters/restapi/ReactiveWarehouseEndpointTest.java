@@ -0,0 +1,20 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import java.util.Map;
+
+// the endpoint suite against the reactive adapter, on a fresh dev services database
+@QuarkusTest
+@TestProfile(ReactiveWarehouseEndpointTest.ReactiveStoreProfile.class)
+public class ReactiveWarehouseEndpointTest extends WarehouseEndpointTestBase {
+
+  public static class ReactiveStoreProfile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+      return Map.of("warehouse.store.kind", "reactive");
+    }
+  }
+}
@@ -0,0 +1,7 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import io.quarkus.test.junit.QuarkusTest;
+
+// the row locks of the blocking adapter
+@QuarkusTest
+public class WarehouseConcurrencyTest extends WarehouseConcurrencyTestBase {}
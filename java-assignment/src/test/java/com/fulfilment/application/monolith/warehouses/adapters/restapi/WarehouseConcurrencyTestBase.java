@@ -0,0 +1,95 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+// The concurrent creations, run against every adapter that keeps its own location locks
+public abstract class WarehouseConcurrencyTestBase {
+
+  private static final String PATH = "warehouse";
+
+  private static final int REQUESTS_PER_LOCATION = 200;
+
+  private final AtomicInteger sequence = new AtomicInteger();
+
+  @Test
+  public void testParallelCreatesNeverExceedLocationLimits() throws Exception {
+    // EINDHOVEN-001 allows 2 warehouses and 70 capacity: the warehouse count is the binding limit
+    // ZWOLLE-002 allows 2 warehouses and 50 capacity: the capacity is the binding limit
+    ExecutorService executor = Executors.newFixedThreadPool(64);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Integer>> eindhoven = new ArrayList<>();
+    List<Future<Integer>> zwolle = new ArrayList<>();
+    try {
+      for (int i = 0; i < REQUESTS_PER_LOCATION; i++) {
+        String suffix = String.valueOf(sequence.incrementAndGet());
+        eindhoven.add(
+            executor.submit(() -> create(start, "CON.EIN." + suffix, "EINDHOVEN-001", 10)));
+        zwolle.add(executor.submit(() -> create(start, "CON.ZWO." + suffix, "ZWOLLE-002", 30)));
+      }
+      start.countDown();
+
+      assertEquals(2, countCreated(eindhoven));
+      assertEquals(1, countCreated(zwolle));
+    } finally {
+      executor.shutdownNow();
+      executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    List<Object> activeInEindhoven =
+        given()
+            .when()
+            .get(PATH)
+            .then()
+            .statusCode(200)
+            .extract()
+            .jsonPath()
+            .getList("findAll { it.location == 'EINDHOVEN-001' }");
+    assertEquals(2, activeInEindhoven.size());
+  }
+
+  private static int countCreated(List<Future<Integer>> responses) throws Exception {
+    int created = 0;
+    for (Future<Integer> response : responses) {
+      int status = response.get(60, TimeUnit.SECONDS);
+      if (status == 200) {
+        created++;
+      } else {
+        // every other request must be a clean business rule rejection, never a server error
+        assertEquals(422, status);
+      }
+    }
+    return created;
+  }
+
+  private static int create(
+      CountDownLatch start, String businessUnitCode, String location, int capacity)
+      throws InterruptedException {
+    start.await();
+    String warehouseJson =
+        "{"
+            + "\"businessUnitCode\":\"" + businessUnitCode + "\","
+            + "\"location\":\"" + location + "\","
+            + "\"capacity\":" + capacity + ","
+            + "\"stock\":1"
+            + "}";
+    return given()
+        .contentType("application/json")
+        .body(warehouseJson)
+        .when()
+        .post(PATH)
+        .then()
+        .extract()
+        .statusCode();
+  }
+}
@@ -0,0 +1,424 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.core.IsNot.not;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+// The endpoint suite, run against every adapter the /warehouse endpoints can be built with
+public abstract class WarehouseEndpointTestBase {
+
+  private static final String PATH = "warehouse";
+
+  @Test
+  public void testListAllWarehouses() {
+    // Test that the endpoint returns a list of warehouses
+    // Note: Specific warehouse codes may vary due to test execution order
+    given()
+        .when()
+        .get(PATH)
+        .then()
+        .statusCode(200)
+        .body(containsString("businessUnitCode"), containsString("location"));
+  }
+
+  @Test
+  public void testListWarehousesByPage() {
+    create("PAG.001", "AMSTERDAM-001", 1, 1);
+    create("PAG.002", "AMSTERDAM-001", 1, 1);
+    try {
+      given()
+          .when()
+          .get(PATH + "?limit=1")
+          .then()
+          .statusCode(200)
+          .body("$", hasSize(1));
+
+      // keyset pagination: continue after the last business unit code received
+      given()
+          .when()
+          .get(PATH + "?after=PAG.001&location=AMSTERDAM-001&limit=1")
+          .then()
+          .statusCode(200)
+          .body("businessUnitCode", contains("PAG.002"));
+
+      given().when().get(PATH + "?limit=0").then().statusCode(400);
+    } finally {
+      archive("PAG.001");
+      archive("PAG.002");
+    }
+  }
+
+  @Test
+  public void testStreamWarehouses() {
+    given()
+        .when()
+        .get(PATH + "/stream?location=TILBURG-001")
+        .then()
+        .statusCode(200)
+        .contentType("application/x-ndjson")
+        .body(containsString("\"businessUnitCode\":\"MWH.023\""));
+  }
+
+  @Test
+  public void testGetWarehouseById() {
+    given()
+        .when()
+        .get(PATH + "/1")
+        .then()
+        .statusCode(200)
+        .body(containsString("MWH.001"), containsString("ZWOLLE-001"));
+  }
+
+  @Test
+  public void testGetWarehouseByBusinessUnitCode() {
+    given()
+        .when()
+        .get(PATH + "/MWH.001")
+        .then()
+        .statusCode(200)
+        .body(containsString("MWH.001"), containsString("ZWOLLE-001"));
+  }
+
+  @Test
+  public void testCreateWarehouseWithValidData() {
+    String warehouseJson =
+        "{"
+            + "\"businessUnitCode\":\"MWH.999\","
+            + "\"location\":\"AMSTERDAM-002\","
+            + "\"capacity\":50,"
+            + "\"stock\":10"
+            + "}";
+
+    // OpenAPI generated code returns 200, not 201
+    given()
+        .contentType("application/json")
+        .body(warehouseJson)
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(200)
+        .body(containsString("MWH.999"), containsString("AMSTERDAM-002"));
+  }
+
+  @Test
+  public void testCreateWarehouseFailsWhenBusinessUnitCodeExists() {
+    String warehouseJson =
+        "{"
+            + "\"businessUnitCode\":\"MWH.001\","
+            + "\"location\":\"AMSTERDAM-001\","
+            + "\"capacity\":50,"
+            + "\"stock\":10"
+            + "}";
+
+    given()
+        .contentType("application/json")
+        .body(warehouseJson)
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(422)
+        .body(containsString("already exists"));
+  }
+
+  @Test
+  public void testCreateWarehouseFailsWhenLocationInvalid() {
+    String warehouseJson =
+        "{"
+            + "\"businessUnitCode\":\"MWH.888\","
+            + "\"location\":\"INVALID-LOCATION\","
+            + "\"capacity\":50,"
+            + "\"stock\":10"
+            + "}";
+
+    given()
+        .contentType("application/json")
+        .body(warehouseJson)
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(422)
+        .body("reason", is("INVALID_LOCATION"))
+        .body("error", is("Location 'INVALID-LOCATION' is not valid."));
+  }
+
+  @Test
+  public void testCreateWarehouseFailsWhenLocationIsFull() {
+    // TILBURG-001 allows a single warehouse and MWH.023 is already active there
+    String warehouseJson =
+        "{"
+            + "\"businessUnitCode\":\"MWH.777\","
+            + "\"location\":\"TILBURG-001\","
+            + "\"capacity\":5,"
+            + "\"stock\":1"
+            + "}";
+
+    given()
+        .contentType("application/json")
+        .body(warehouseJson)
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(422)
+        .body("reason", is("MAX_WAREHOUSES_REACHED"))
+        .body(
+            "error",
+            is("Maximum number of warehouses (1) has already been reached for location"
+                + " 'TILBURG-001'."));
+  }
+
+  @Test
+  public void testCreateWarehousesInBatch() {
+    create("BAT.000", "AMSTERDAM-001", 1, 1);
+    String batchJson =
+        "["
+            + warehouseJson("BAT.001", "VETSBY-001", 50, 5)
+            // VETSBY-001 only allows one warehouse, which was taken by the previous item
+            + ","
+            + warehouseJson("BAT.002", "VETSBY-001", 10, 5)
+            + ","
+            + warehouseJson("BAT.001", "HELMOND-001", 10, 5)
+            + ","
+            + warehouseJson("BAT.000", "HELMOND-001", 10, 5)
+            + ","
+            + warehouseJson("BAT.003", "HELMOND-001", 40, 5)
+            + ","
+            + warehouseJson("BAT.004", "NOWHERE-001", 10, 5)
+            + "]";
+
+    try {
+      given()
+          .contentType("application/json")
+          .body(batchJson)
+          .when()
+          .post(PATH + "/batch")
+          .then()
+          .statusCode(200)
+          .body("created", contains(true, false, false, false, true, false))
+          .body("code", contains(200, 422, 422, 422, 200, 422));
+
+      given()
+          .when()
+          .get(PATH + "/BAT.003")
+          .then()
+          .statusCode(200)
+          .body(containsString("HELMOND-001"));
+    } finally {
+      archive("BAT.000");
+      archive("BAT.001");
+      archive("BAT.003");
+    }
+  }
+
+  @Test
+  public void testArchiveWarehouse() {
+    // Archive warehouse by ID
+    given().when().delete(PATH + "/1").then().statusCode(204);
+
+    // Verify it's no longer in the list
+    given()
+        .when()
+        .get(PATH)
+        .then()
+        .statusCode(200)
+        .body(not(containsString("MWH.001")));
+  }
+
+  @Test
+  public void testReplaceWarehouseWithMatchingStock() {
+    String replacementJson =
+        "{"
+            + "\"businessUnitCode\":\"MWH.012\","
+            + "\"location\":\"AMSTERDAM-001\","
+            + "\"capacity\":75,"
+            + "\"stock\":5"
+            + "}";
+
+    // Loaded once before, so a stale copy would be served if the replacement did not evict it
+    given().when().get(PATH + "/MWH.012").then().statusCode(200);
+
+    given()
+        .contentType("application/json")
+        .body(replacementJson)
+        .when()
+        .post(PATH + "/MWH.012/replacement")
+        .then()
+        .statusCode(200)
+        .body(containsString("MWH.012"), containsString("75"));
+
+    given()
+        .when()
+        .get(PATH + "/MWH.012")
+        .then()
+        .statusCode(200)
+        .body(containsString("AMSTERDAM-001"), containsString("75"));
+  }
+
+  @Test
+  public void testReplaceWarehouseFailsWhenStockDoesNotMatch() {
+    String replacementJson =
+        "{"
+            + "\"businessUnitCode\":\"MWH.012\","
+            + "\"location\":\"AMSTERDAM-001\","
+            + "\"capacity\":75,"
+            + "\"stock\":999"
+            + "}";
+
+    given()
+        .contentType("application/json")
+        .body(replacementJson)
+        .when()
+        .post(PATH + "/MWH.012/replacement")
+        .then()
+        .statusCode(422)
+        .body(containsString("must match"));
+  }
+
+  @Test
+  public void testPlanWarehouseOperations() {
+    String planJson =
+        "["
+            + "{\"type\":\"ARCHIVE\",\"warehouse\":{\"businessUnitCode\":\"MWH.023\"}},"
+            // TILBURG-001 allows a single warehouse, freed by the archiving planned before
+            + operationJson("CREATE", warehouseJson("PLN.001", "TILBURG-001", 30, 5))
+            + ","
+            + operationJson("CREATE", warehouseJson("PLN.002", "TILBURG-001", 5, 1))
+            + ","
+            + operationJson("REPLACE", warehouseJson("PLN.404", "TILBURG-001", 5, 1))
+            + ","
+            + operationJson("CREATE", warehouseJson("PLN.003", "NOWHERE-001", 5, 1))
+            + "]";
+
+    given()
+        .contentType("application/json")
+        .body(planJson)
+        .when()
+        .post(PATH + "/plan")
+        .then()
+        .statusCode(200)
+        .body("verdicts.accepted", contains(true, true, false, false, false))
+        .body("verdicts.code", contains(204, 200, 422, 404, 422))
+        .body(
+            "verdicts.reason",
+            contains(
+                null,
+                null,
+                "MAX_WAREHOUSES_REACHED",
+                "WAREHOUSE_NOT_FOUND",
+                "INVALID_LOCATION"))
+        .body("locations.find { it.location == 'TILBURG-001' }.activeWarehouses", is(1))
+        .body("locations.find { it.location == 'TILBURG-001' }.totalCapacity", is(30))
+        .body("locations.find { it.location == 'TILBURG-001' }.maxCapacity", is(40));
+
+    // nothing was applied
+    given().when().get(PATH + "/MWH.023").then().statusCode(200);
+    given().when().get(PATH + "/PLN.001").then().statusCode(404);
+
+    given()
+        .contentType("application/json")
+        .body("[{\"type\":\"MOVE\",\"warehouse\":{\"businessUnitCode\":\"MWH.023\"}}]")
+        .when()
+        .post(PATH + "/plan")
+        .then()
+        .statusCode(400);
+    given()
+        .contentType("application/json")
+        .body("[null]")
+        .when()
+        .post(PATH + "/plan")
+        .then()
+        .statusCode(400);
+  }
+
+  @Test
+  public void testReplacementAndArchivingKeepTheEarlierGenerations() {
+    create("HIS.001", "AMSTERDAM-001", 5, 2);
+    given()
+        .contentType("application/json")
+        .body(warehouseJson("HIS.001", "AMSTERDAM-001", 6, 2))
+        .when()
+        .post(PATH + "/HIS.001/replacement")
+        .then()
+        .statusCode(200);
+    given().when().delete(PATH + "/HIS.001").then().statusCode(204);
+
+    List<String> validFrom =
+        given()
+            .when()
+            .get(PATH + "/HIS.001/generations")
+            .then()
+            .statusCode(200)
+            .body("generation", contains(1, 2, 3))
+            .body("archived", contains(false, false, true))
+            .body("warehouse.capacity", contains(5, 6, 6))
+            .extract()
+            .path("validFrom");
+
+    given()
+        .when()
+        .get(PATH + "/as-of?businessUnitCode=HIS.001&timestamp=" + validFrom.get(1))
+        .then()
+        .statusCode(200)
+        .body("generation", contains(2))
+        .body("warehouse.capacity", contains(6));
+    given()
+        .when()
+        .get(PATH + "/as-of?businessUnitCode=HIS.001&timestamp=" + validFrom.get(2))
+        .then()
+        .statusCode(200)
+        .body("$", hasSize(0));
+  }
+
+  @Test
+  public void testListWarehousesAsOf() {
+    // only MWH.023 had been created by then, in the generation it was seeded with
+    given()
+        .when()
+        .get(PATH + "/as-of?timestamp=2022-01-01T00:00:00")
+        .then()
+        .statusCode(200)
+        .body("businessUnitCode", contains("MWH.023"))
+        .body("generation", contains(1))
+        .body("warehouse.location", contains("TILBURG-001"));
+
+    given().when().get(PATH + "/as-of?timestamp=yesterday").then().statusCode(400);
+    given().when().get(PATH + "/HIS.404/generations").then().statusCode(404);
+  }
+
+  // The tests that need room at a location create their own warehouses there, and archive them
+  // when done, so that they neither depend on nor leave behind the warehouses of other tests
+
+  private static void create(String businessUnitCode, String location, int capacity, int stock) {
+    given()
+        .contentType("application/json")
+        .body(warehouseJson(businessUnitCode, location, capacity, stock))
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(200);
+  }
+
+  // clean-up only, so that a failed test reports its own failure rather than the archiving's
+  private static void archive(String businessUnitCode) {
+    given().when().delete(PATH + "/" + businessUnitCode);
+  }
+
+  private static String warehouseJson(
+      String businessUnitCode, String location, int capacity, int stock) {
+    return "{"
+        + "\"businessUnitCode\":\"" + businessUnitCode + "\","
+        + "\"location\":\"" + location + "\","
+        + "\"capacity\":" + capacity + ","
+        + "\"stock\":" + stock
+        + "}";
+  }
+
+  private static String operationJson(String type, String warehouseJson) {
+    return "{\"type\":\"" + type + "\",\"warehouse\":" + warehouseJson + "}";
+  }
+}
@@ -0,0 +1,111 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.response.ValidatableResponse;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+// Every write loads its warehouse once, under a row lock, and reuses it for the update. The
+// statement counts below are the whole budget of each endpoint: a second load of the warehouse,
+// or of its occupancy, shows up as one more statement.
+@QuarkusTest
+public class WarehouseStatementCountTest {
+
+  private static final String PATH = "warehouse";
+
+  @Inject SessionFactory sessionFactory;
+
+  @Test
+  public void testReplacementAndArchivingLoadTheWarehouseOnce() {
+    create("SQL.001", 10);
+
+    // the warehouse for update, the occupancy for update, the two updates, then the insert of the
+    // new generation
+    assertStatements(5, () -> replace("SQL.001", 12));
+    // the same for the archiving, looked up by business unit code
+    assertStatements(5, () -> given().when().delete(PATH + "/SQL.001").then().statusCode(204));
+  }
+
+  @Test
+  public void testWarmLookupByBusinessUnitCodeIssuesNoStatement() {
+    create("SQL.002", 10);
+    get("SQL.002");
+
+    assertStatements(0, () -> get("SQL.002"));
+
+    given().when().delete(PATH + "/SQL.002").then().statusCode(204);
+  }
+
+  @Test
+  public void testWarehousesInvalidOnTheirOwnAreRejectedWithoutStatement() {
+    create("SQL.003", 10);
+
+    assertStatements(0, () -> post(PATH, warehouse("SQL.004", 0)).statusCode(422));
+    // no capacity, told apart before the replaced warehouse is loaded
+    assertStatements(
+        0, () -> post(PATH + "/SQL.003/replacement", warehouse("SQL.003", 0)).statusCode(422));
+    // a capacity below the stock carried over needs the replaced warehouse, but neither the lock
+    // of the location nor a write
+    assertStatements(
+        1, () -> post(PATH + "/SQL.003/replacement", warehouse("SQL.003", 1)).statusCode(422));
+    // no capacity, then a stock above the capacity
+    String batch = "[" + warehouse("SQL.005", 0) + "," + warehouse("SQL.006", 1) + "]";
+    assertStatements(0, () -> post(PATH + "/batch", batch).statusCode(200));
+
+    given().when().delete(PATH + "/SQL.003").then().statusCode(204);
+  }
+
+  private void assertStatements(long expected, Runnable request) {
+    Statistics statistics = sessionFactory.getStatistics();
+    long before = statistics.getPrepareStatementCount();
+    request.run();
+    assertEquals(expected, statistics.getPrepareStatementCount() - before);
+  }
+
+  // AMSTERDAM-002 has room for these next to the warehouses of the endpoint suite
+  private static void create(String businessUnitCode, int capacity) {
+    given()
+        .contentType("application/json")
+        .body(warehouse(businessUnitCode, capacity))
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(200);
+  }
+
+  private static void replace(String businessUnitCode, int capacity) {
+    given()
+        .contentType("application/json")
+        .body(warehouse(businessUnitCode, capacity))
+        .when()
+        .post(PATH + "/" + businessUnitCode + "/replacement")
+        .then()
+        .statusCode(200);
+  }
+
+  private static ValidatableResponse post(String path, String body) {
+    return given().contentType("application/json").body(body).when().post(path).then();
+  }
+
+  private static void get(String businessUnitCode) {
+    given().when().get(PATH + "/" + businessUnitCode).then().statusCode(200);
+  }
+
+  private static String warehouse(String businessUnitCode, int capacity) {
+    return "{"
+        + "\"businessUnitCode\":\""
+        + businessUnitCode
+        + "\","
+        + "\"location\":\"AMSTERDAM-002\","
+        + "\"capacity\":"
+        + capacity
+        + ","
+        + "\"stock\":2"
+        + "}";
+  }
+}
@@ -1,3 +1,58 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
-public class CreateWarehouseUseCaseTest {}
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fulfilment.application.monolith.warehouses.adapters.memory.InMemoryWarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseRejectedException;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseRejection;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseChangeListener;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseOperationMetrics;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class CreateWarehouseUseCaseTest {
+
+  private static final Map<String, Location> LOCATIONS =
+      Map.of(
+          "ZWOLLE-001", new Location("ZWOLLE-001", 2, 100),
+          "AMSTERDAM-001", new Location("AMSTERDAM-001", 2, 100));
+
+  @Test
+  public void testCodeTakenByConcurrentCreationIsRejectedAsDuplicate() {
+    // the code is looked up before a concurrent creation of the same code is stored
+    InMemoryWarehouseStore warehouseStore =
+        new InMemoryWarehouseStore() {
+          @Override
+          public Warehouse findByBusinessUnitCode(String buCode) {
+            return null;
+          }
+        };
+    CreateWarehouseUseCase useCase =
+        new CreateWarehouseUseCase(
+            warehouseStore,
+            LOCATIONS::get,
+            WarehouseChangeListener.NONE,
+            WarehouseOperationMetrics.NONE);
+    useCase.create(warehouse("CWU.001", "ZWOLLE-001"));
+
+    WarehouseRejectedException rejection =
+        assertThrows(
+            WarehouseRejectedException.class,
+            () -> useCase.create(warehouse("CWU.001", "AMSTERDAM-001")));
+
+    assertEquals(WarehouseRejection.DUPLICATE_BUSINESS_UNIT_CODE, rejection.getRejection());
+    assertEquals(422, rejection.getResponse().getStatus());
+  }
+
+  private static Warehouse warehouse(String businessUnitCode, String location) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = businessUnitCode;
+    warehouse.location = location;
+    warehouse.capacity = 10;
+    warehouse.stock = 1;
+    return warehouse;
+  }
+}
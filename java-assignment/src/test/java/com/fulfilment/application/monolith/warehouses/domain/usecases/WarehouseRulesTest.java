@@ -0,0 +1,144 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseRejection;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseViolation;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+// Counts the lookups each candidate costs: the catalog, the keyed reads of the stored warehouses
+// and the locks of the occupancies
+public class WarehouseRulesTest {
+
+  private static final Map<String, Location> CATALOG =
+      Map.of("ZWOLLE-001", new Location("ZWOLLE-001", 2, 100));
+
+  private int catalogLookups;
+
+  private int reads;
+
+  private int locks;
+
+  @Test
+  public void testInvalidCapacityIsRejectedWithoutAnyLookup() {
+    WarehouseViolation violation =
+        WarehouseRules.CREATE.check(creation(warehouse("RUL.001", "ZWOLLE-001", 0, 0), false));
+
+    assertEquals(WarehouseRejection.INVALID_CAPACITY, violation.rejection());
+    assertLookups(0, 0, 0);
+  }
+
+  @Test
+  public void testInvalidLocationIsRejectedBeforeTheDatabase() {
+    // a duplicate as well, but the catalog is cheaper to ask
+    WarehouseViolation violation =
+        WarehouseRules.CREATE.check(creation(warehouse("RUL.001", "NOWHERE-001", 10, 5), true));
+
+    assertEquals(WarehouseRejection.INVALID_LOCATION, violation.rejection());
+    assertLookups(1, 0, 0);
+  }
+
+  @Test
+  public void testDuplicateIsRejectedBeforeTheLocationIsLocked() {
+    WarehouseViolation violation =
+        WarehouseRules.CREATE.check(creation(warehouse("RUL.001", "ZWOLLE-001", 10, 5), true));
+
+    assertEquals(WarehouseRejection.DUPLICATE_BUSINESS_UNIT_CODE, violation.rejection());
+    assertLookups(1, 1, 0);
+  }
+
+  @Test
+  public void testValidCreationLooksEachInputUpOnce() {
+    assertNull(
+        WarehouseRules.CREATE.check(creation(warehouse("RUL.001", "ZWOLLE-001", 10, 5), false)));
+    assertLookups(1, 1, 1);
+  }
+
+  @Test
+  public void testReplacementUnableToHoldItsStockIsRejectedBeforeTheLocationIsLocked() {
+    // a stock mismatch takes precedence, so the replaced warehouse is read first
+    WarehouseViolation violation =
+        WarehouseRules.REPLACE.check(
+            replacement(
+                warehouse("RUL.002", "ZWOLLE-001", 3, 5),
+                warehouse("RUL.002", "ZWOLLE-001", 10, 5)));
+
+    assertEquals(WarehouseRejection.INVALID_CAPACITY, violation.rejection());
+    assertLookups(1, 1, 0);
+  }
+
+  @Test
+  public void testReplacementOfUnknownWarehouseIsNotLocked() {
+    WarehouseViolation violation =
+        WarehouseRules.REPLACE.check(replacement(warehouse("RUL.404", "ZWOLLE-001", 10, 5), null));
+
+    assertEquals(WarehouseRejection.WAREHOUSE_NOT_FOUND, violation.rejection());
+    assertEquals(404, violation.status());
+    assertLookups(1, 1, 0);
+  }
+
+  @Test
+  public void testReplacementWithinTheSameLocationDoesNotCountTwice() {
+    // 80 of the 100 at ZWOLLE-001 are taken by the warehouse being replaced
+    assertNull(
+        WarehouseRules.REPLACE.check(
+            replacement(
+                warehouse("RUL.003", "ZWOLLE-001", 90, 5),
+                warehouse("RUL.003", "ZWOLLE-001", 80, 5))));
+    assertLookups(1, 1, 1);
+  }
+
+  private WarehouseCandidate creation(Warehouse warehouse, boolean businessUnitCodeTaken) {
+    return WarehouseCandidate.creation(
+        warehouse,
+        this::resolve,
+        () -> {
+          reads++;
+          return businessUnitCodeTaken;
+        },
+        () -> {
+          locks++;
+          return new LocationOccupancy(warehouse.location, 0, 0, 0);
+        });
+  }
+
+  private WarehouseCandidate replacement(Warehouse warehouse, Warehouse existing) {
+    return WarehouseCandidate.replacement(
+        warehouse,
+        this::resolve,
+        () -> {
+          reads++;
+          return existing;
+        },
+        replaced -> {
+          locks++;
+          return new LocationOccupancy(warehouse.location, 1, replaced.capacity, replaced.stock);
+        });
+  }
+
+  private Location resolve(String identifier) {
+    catalogLookups++;
+    return CATALOG.get(identifier);
+  }
+
+  private void assertLookups(int expectedCatalogLookups, int expectedReads, int expectedLocks) {
+    assertEquals(expectedCatalogLookups, catalogLookups, "catalog lookups");
+    assertEquals(expectedReads, reads, "reads");
+    assertEquals(expectedLocks, locks, "locks");
+  }
+
+  private static Warehouse warehouse(
+      String businessUnitCode, String location, int capacity, int stock) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = businessUnitCode;
+    warehouse.location = location;
+    warehouse.capacity = capacity;
+    warehouse.stock = stock;
+    return warehouse;
+  }
+}